@@ -119,6 +119,10 @@ plugins {
     // https://github.com/radarsh/gradle-test-logger-plugin
     alias(libs.plugins.testLogger)
 
+    // https://github.com/melix/jmh-gradle-plugin
+    // Microbenchmarks in src/jmh/java: gradle jmh
+    alias(libs.plugins.jmh)
+
     // https://github.com/allure-framework/allure-gradle
     // https://docs.qameta.io/allure/#_gradle_2
     // TODO "The Project.getConvention() method has been deprecated."
@@ -212,6 +216,11 @@ repositories {
     // }
 }
 
+// Lasttest mit fester Ankunftsrate in src/loadtest/java: gradle loadTest
+sourceSets {
+    create("loadtest")
+}
+
 configurations {
     compileOnly {
         extendsFrom(configurations.annotationProcessor.get())
@@ -261,6 +270,8 @@ dependencies {
     implementation("org.springframework.security:spring-security-crypto")
     implementation("org.springframework.boot:spring-boot-starter-mail")
     implementation("org.springframework.boot:spring-boot-starter-actuator")
+    // Metriken fuer Prometheus: /actuator/prometheus nur mit der Rolle ACTUATOR
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
 
     implementation("org.flywaydb:flyway-core")
     // https://flywaydb.org/documentation/database/mysql#java-usage
@@ -274,6 +285,13 @@ dependencies {
 
     implementation(libs.jfiglet)
 
+    // Cache fuer bereits ueberpruefte Benutzerkennungen bei Basic Authentication
+    implementation("com.github.ben-manes.caffeine:caffeine")
+    // 2nd Level Cache von Hibernate mit JCache und Caffeine sowie Metriken fuer Micrometer
+    implementation("org.hibernate.orm:hibernate-jcache")
+    implementation("com.github.ben-manes.caffeine:jcache")
+    implementation("org.hibernate.orm:hibernate-micrometer")
+
     // https://github.com/querydsl/querydsl/issues/2444#issuecomment-489538997
     // https://stackoverflow.com/questions/59950657/querydsl-annotation-processor-and-gradle-plugin#answer-59951292
     // https://github.com/querydsl/querydsl/issues/3436
@@ -316,6 +334,9 @@ dependencies {
     //testImplementation("org.springframework.security:spring-security-test")
     // mock() fuer record
     testImplementation("org.mockito:mockito-inline")
+    // MockHttpServletRequest fuer die Benchmarks zu PATCH
+    jmhImplementation("org.springframework:spring-test")
+    "loadtestImplementation"(libs.hdrHistogram)
 
     // https://github.com/tbroyer/gradle-errorprone-plugin
     errorprone(libs.errorprone)
@@ -632,6 +653,59 @@ tasks.test {
 //    // }
 //}
 
+// https://github.com/melix/jmh-gradle-plugin#configuration-options
+// Allokationen pro Operation mit "-prof gc", d.h. gc.alloc.rate.norm in build/results/jmh/results.json
+jmh {
+    jmhVersion.set(libs.versions.jmh.get())
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    timeUnit.set("us")
+    benchmarkMode.add("avgt")
+    if (javaVersion != javaLts) {
+        jvmArgs.add("--enable-preview")
+    }
+    System.getProperty("bench")?.let { includes.add(it) }
+}
+
+tasks.named<JavaCompile>("compileLoadtestJava") {
+    options.isDeprecation = true
+    with(options.compilerArgs) {
+        add("-Xlint:unchecked")
+        if (javaVersion != javaLts) {
+            add("--enable-preview")
+        }
+    }
+}
+
+// Ersatz fuer extras/fortio.ps1: der Server wird als JAR mit H2 gestartet, sofern nicht -Durl=... angegeben ist
+// gradle loadTest [-Ddb=h2|h2-postgres] [-Durl=http://localhost:8080] [-Drate=100] [-Dduration=PT30S]
+//                 [-Dwarmup=PT10S] [-Dscenario=get-id,get-id-etag,search,autocomplete,post,put,patch,graphql]
+//                 [-DmaxPinned=0]
+// Ergebnisse: build/reports/loadtest/loadtest.csv
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Lasttest mit fester Ankunftsrate und Latenz-Perzentilen"
+    val bootJar = tasks.named<BootJar>("bootJar")
+    dependsOn(bootJar)
+    classpath = sourceSets["loadtest"].runtimeClasspath
+    mainClass.set("com.acme.kunde.loadtest.LoadTest")
+    if (javaVersion != javaLts) {
+        jvmArgs("--enable-preview")
+    }
+
+    systemProperty("loadtest.jar", bootJar.get().archiveFile.get().asFile.absolutePath)
+    systemProperty("loadtest.enablePreview", javaVersion != javaLts)
+    systemProperty("loadtest.version", project.version)
+    systemProperty("loadtest.logPath", "${layout.buildDirectory.asFile.get()}/log")
+    systemProperty("loadtest.report", "${layout.buildDirectory.asFile.get()}/reports/loadtest/loadtest.csv")
+    listOf("db", "url", "rate", "duration", "warmup", "scenario", "maxPinned").forEach { name ->
+        System.getProperty(name)?.let { value -> systemProperty("loadtest.$name", value) }
+    }
+}
+
 jacoco {
     toolVersion = libs.versions.jacoco.get()
 }
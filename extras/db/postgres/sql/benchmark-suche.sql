@@ -0,0 +1,86 @@
+-- Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+--
+-- This program is free software: you can redistribute it and/or modify
+-- it under the terms of the GNU General Public License as published by
+-- the Free Software Foundation, either version 3 of the License, or
+-- (at your option) any later version.
+--
+-- This program is distributed in the hope that it will be useful,
+-- but WITHOUT ANY WARRANTY; without even the implied warranty of
+-- MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+-- GNU General Public License for more details.
+--
+-- You should have received a copy of the GNU General Public License
+-- along with this program.  If not, see <https://www.gnu.org/licenses/>.
+
+-- Benchmark fuer die Suche mit lower(...) LIKE ohne und mit den Indexen aus V1.2__Index.sql sowie fuer die Suche nach Interessen
+-- mit 1.000.000 Kunden. Alle Aenderungen erfolgen in einer Transaktion, die am Ende zurueckgesetzt wird.
+
+-- docker compose exec postgres bash
+-- psql --dbname=kunde --username=kunde --file=/sql/benchmark-suche.sql > /tmp/benchmark-suche.txt
+
+\timing on
+BEGIN;
+
+INSERT INTO login (id, username, password, rollen)
+SELECT gen_random_uuid(), 'bench' || i, '{noop}p', 'KUNDE'
+FROM   generate_series(1, 1000000) AS i;
+
+INSERT INTO kunde (id, version, nachname, email, kategorie, has_newsletter, geburtsdatum, homepage, geschlecht,
+                   familienstand, interessen_bits, username, erzeugt, aktualisiert)
+SELECT gen_random_uuid(),
+       0,
+       (ARRAY['Mueller','Schmidt','Schneider','Fischer','Weber','Meyer','Wagner','Becker','Schulz','Hoffmann',
+              'Koch','Richter','Klein','Wolf','Schroeder','Neumann','Schwarz','Zimmermann','Braun','Krueger'])[1 + i % 20]
+           || (i % 5000),
+       'bench' || i || '@acme.de',
+       i % 10,
+       i % 2 = 0,
+       date '1950-01-01' + (i % 20000),
+       'https://www.acme.de',
+       (ARRAY['MAENNLICH','WEIBLICH','DIVERS'])[1 + i % 3],
+       (ARRAY['LEDIG','VERHEIRATET','GESCHIEDEN','VERWITWET'])[1 + i % 4],
+       i % 8,
+       'bench' || i,
+       now(),
+       now()
+FROM   generate_series(1, 1000000) AS i;
+
+INSERT INTO adresse (id, plz, ort, kunde_id)
+SELECT gen_random_uuid(), lpad((i % 100000)::text, 5, '0'), 'Ort' || (i % 10000), k.id
+FROM   (SELECT id, row_number() OVER () AS i FROM kunde) AS k;
+
+-- (1) ohne die Indexe aus V1.2__Index.sql
+DROP INDEX IF EXISTS kunde_nachname_trgm_idx, kunde_email_trgm_idx, adresse_ort_trgm_idx,
+                     kunde_nachname_lower_idx, kunde_email_lower_idx, adresse_ort_lower_idx;
+ANALYZE login, kunde, adresse;
+
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM kunde WHERE lower(nachname) LIKE '%zimmermann42%';
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM kunde WHERE lower(nachname) LIKE 'zimmermann42%';
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM kunde WHERE lower(email) LIKE 'bench424242%';
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM adresse WHERE lower(ort) LIKE '%ort4242%';
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM adresse WHERE lower(ort) LIKE 'ort4242%';
+EXPLAIN (ANALYZE, BUFFERS)
+    SELECT DISTINCT nachname FROM kunde WHERE lower(nachname) LIKE 'zimmermann4%' ORDER BY nachname;
+-- Interessen REISEN und SPORT (0b101) aus V1.4__Interessen.sql: alle Bitmasken, die beide Bits enthalten
+-- ohne Index, d.h. Seq Scan mit einem Integer-Vergleich pro Zeile statt LIKE '%...%'
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM kunde WHERE interessen_bits IN (5, 7);
+
+-- (2) mit den Indexen aus V1.2__Index.sql
+CREATE INDEX kunde_nachname_trgm_idx ON kunde USING gin (lower(nachname) gin_trgm_ops);
+CREATE INDEX kunde_email_trgm_idx ON kunde USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX adresse_ort_trgm_idx ON adresse USING gin (lower(ort) gin_trgm_ops);
+CREATE INDEX kunde_nachname_lower_idx ON kunde (lower(nachname) text_pattern_ops);
+CREATE INDEX kunde_email_lower_idx ON kunde (lower(email) text_pattern_ops);
+CREATE INDEX adresse_ort_lower_idx ON adresse (lower(ort) text_pattern_ops);
+ANALYZE login, kunde, adresse;
+
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM kunde WHERE lower(nachname) LIKE '%zimmermann42%';
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM kunde WHERE lower(nachname) LIKE 'zimmermann42%';
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM kunde WHERE lower(email) LIKE 'bench424242%';
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM adresse WHERE lower(ort) LIKE '%ort4242%';
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM adresse WHERE lower(ort) LIKE 'ort4242%';
+EXPLAIN (ANALYZE, BUFFERS)
+    SELECT DISTINCT nachname FROM kunde WHERE lower(nachname) LIKE 'zimmermann4%' ORDER BY nachname;
+
+ROLLBACK;
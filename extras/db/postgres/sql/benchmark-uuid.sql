@@ -0,0 +1,85 @@
+-- Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+--
+-- This program is free software: you can redistribute it and/or modify
+-- it under the terms of the GNU General Public License as published by
+-- the Free Software Foundation, either version 3 of the License, or
+-- (at your option) any later version.
+--
+-- This program is distributed in the hope that it will be useful,
+-- but WITHOUT ANY WARRANTY; without even the implied warranty of
+-- MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+-- GNU General Public License for more details.
+--
+-- You should have received a copy of the GNU General Public License
+-- along with this program.  If not, see <https://www.gnu.org/licenses/>.
+
+-- Benchmark fuer INSERT mit zufaelligen UUIDs (Version 4, bisher @GeneratedValue) und mit zeitlich geordneten UUIDs
+-- (Version 7, @UuidV7): Dauer der INSERT-Anweisungen und Groesse der Indexe danach.
+-- Die Tabellen entsprechen "umsatz" mit dem Primaerschluessel und dem Index umsatz_kunde_id_idx.
+
+-- docker compose exec postgres bash
+-- psql --dbname=kunde --username=kunde --file=/sql/benchmark-uuid.sql > /tmp/benchmark-uuid.txt
+
+\timing on
+
+-- UUID Version 7 analog zu UuidV7Generator, jedoch ohne Zaehler innerhalb derselben Millisekunde
+-- ab PostgreSQL 18 gibt es die eingebaute Funktion uuidv7()
+CREATE OR REPLACE FUNCTION pg_temp.uuid_v7() RETURNS uuid AS $$
+    SELECT encode(
+        set_bit(
+            set_bit(
+                overlay(uuid_send(gen_random_uuid())
+                        PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3)
+                        FROM 1 FOR 6),
+                52, 1),
+            53, 1),
+        'hex')::uuid;
+$$ LANGUAGE sql VOLATILE;
+
+CREATE TEMPORARY TABLE umsatz_v4 (
+    id        uuid PRIMARY KEY,
+    betrag    decimal(10,2) NOT NULL,
+    waehrung  char(3) NOT NULL,
+    kunde_id  uuid NOT NULL,
+    idx       integer NOT NULL DEFAULT 0
+);
+CREATE INDEX umsatz_v4_kunde_id_idx ON umsatz_v4(kunde_id);
+
+CREATE TEMPORARY TABLE umsatz_v7 (LIKE umsatz_v4 INCLUDING DEFAULTS);
+ALTER TABLE umsatz_v7 ADD PRIMARY KEY (id);
+CREATE INDEX umsatz_v7_kunde_id_idx ON umsatz_v7(kunde_id);
+
+-- (1) 1.000.000 Zeilen in Batches zu 1000 Zeilen wie bei hibernate.jdbc.batch_size, jeweils 2 Umsaetze pro Kunde
+DO $$
+BEGIN
+    FOR batch IN 0..999 LOOP
+        INSERT INTO umsatz_v4 (id, betrag, waehrung, kunde_id)
+        SELECT gen_random_uuid(), 1, 'EUR', k.kunde_id
+        FROM   (SELECT gen_random_uuid() AS kunde_id FROM generate_series(1, 500)) AS k, generate_series(1, 2);
+    END LOOP;
+END $$;
+
+DO $$
+BEGIN
+    FOR batch IN 0..999 LOOP
+        INSERT INTO umsatz_v7 (id, betrag, waehrung, kunde_id)
+        SELECT pg_temp.uuid_v7(), 1, 'EUR', k.kunde_id
+        FROM   (SELECT pg_temp.uuid_v7() AS kunde_id FROM generate_series(1, 500)) AS k, generate_series(1, 2);
+    END LOOP;
+END $$;
+
+-- (2) Groesse der Tabellen und Indexe
+SELECT relname, pg_size_pretty(pg_relation_size(oid)) AS groesse
+FROM   pg_class
+WHERE  relname IN ('umsatz_v4', 'umsatz_v4_pkey', 'umsatz_v4_kunde_id_idx',
+                   'umsatz_v7', 'umsatz_v7_pkey', 'umsatz_v7_kunde_id_idx')
+ORDER BY relname;
+
+-- (3) Fuellgrad der B-Baeume, falls die Extension pgstattuple verfuegbar ist
+-- CREATE EXTENSION IF NOT EXISTS pgstattuple;
+-- SELECT 'umsatz_v4_pkey', avg_leaf_density, leaf_fragmentation FROM pgstatindex('umsatz_v4_pkey')
+-- UNION ALL
+-- SELECT 'umsatz_v7_pkey', avg_leaf_density, leaf_fragmentation FROM pgstatindex('umsatz_v7_pkey');
+
+DROP TABLE umsatz_v4;
+DROP TABLE umsatz_v7;
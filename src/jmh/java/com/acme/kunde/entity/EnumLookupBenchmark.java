@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.entity;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Microbenchmarks für die Konvertierung der internen Werte in Enum-Werte durch <code>of(String)</code>, z.B. bei
+ * Query-Parametern und PATCH-Operationen.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class EnumLookupBenchmark {
+    /**
+     * Interner Wert in Groß- oder Kleinschreibung oder ein ungültiger Wert.
+     */
+    @Param({"R", "r", "X"})
+    private String interesse;
+
+    @Param({"W"})
+    private String geschlecht;
+
+    @Param({"VW", "vw"})
+    private String familienstand;
+
+    /**
+     * Interesse zum internen Wert ermitteln.
+     *
+     * @return Das Interesse oder ein leeres Optional
+     */
+    @Benchmark
+    public Optional<InteresseType> interesse() {
+        return InteresseType.of(interesse);
+    }
+
+    /**
+     * Geschlecht zum internen Wert ermitteln.
+     *
+     * @return Das Geschlecht oder ein leeres Optional
+     */
+    @Benchmark
+    public Optional<GeschlechtType> geschlecht() {
+        return GeschlechtType.of(geschlecht);
+    }
+
+    /**
+     * Familienstand zum internen Wert ermitteln.
+     *
+     * @return Der Familienstand oder ein leeres Optional
+     */
+    @Benchmark
+    public Optional<FamilienstandType> familienstand() {
+        return FamilienstandType.of(familienstand);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.entity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import static com.acme.kunde.entity.InteresseType.LESEN;
+import static com.acme.kunde.entity.InteresseType.REISEN;
+import static com.acme.kunde.entity.InteresseType.SPORT;
+
+/**
+ * Microbenchmarks für die Konvertierung der Interessen in {@linkplain Kunde} durch die Callback-Methoden für
+ * {@code @PrePersist} und {@code @PostLoad}.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class KundeInteressenBenchmark {
+    @Param({"0", "1", "3"})
+    private int anzahl;
+
+    private Kunde kundePersist;
+    private Kunde kundeLoad;
+
+    /**
+     * Kunde-Objekte mit der jeweiligen Anzahl an Interessen vorbereiten.
+     */
+    @Setup
+    public void setup() {
+        final List<InteresseType> interessen = new ArrayList<>(List.of(LESEN, REISEN, SPORT).subList(0, anzahl));
+        kundePersist = Kunde.builder().interessen(interessen).build();
+
+        kundeLoad = Kunde.builder().interessen(interessen).build();
+        kundeLoad.buildInteressenBits();
+    }
+
+    /**
+     * Die Interessen in die Bitmaske für die DB-Spalte konvertieren, wie bei {@code @PrePersist}.
+     *
+     * @return Die Bitmaske für die DB-Spalte
+     */
+    @Benchmark
+    public int prePersist() {
+        kundePersist.buildInteressenBits();
+        return kundePersist.getInteressenBits();
+    }
+
+    /**
+     * Die Bitmaske aus der DB-Spalte in die Liste der Interessen konvertieren, wie bei {@code @PostLoad}.
+     *
+     * @return Die Liste der Interessen
+     */
+    @Benchmark
+    public List<InteresseType> postLoad() {
+        kundeLoad.loadInteressen();
+        return kundeLoad.getInteressen();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.repository;
+
+import com.acme.kunde.SearchProps;
+import com.querydsl.core.types.Predicate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Microbenchmark für {@linkplain PredicateBuilder#build(Map)} mit unterschiedlich großen Query-Parametern.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class PredicateBuilderBenchmark {
+    private static final Map<String, Map<String, List<String>>> QUERY_PARAMS = Map.of(
+        "nachname", Map.of("nachname", List.of("a")),
+        "kombiniert", Map.of(
+            "nachname", List.of("a"),
+            "email", List.of("acme.com"),
+            "kategorie", List.of("2"),
+            "plz", List.of("1")
+        ),
+        "interessen", Map.of("interesse", List.of("L", "R", "S")),
+        "alle", Map.of(
+            "nachname", List.of("a"),
+            "email", List.of("acme.com"),
+            "kategorie", List.of("2"),
+            "newsletter", List.of("true"),
+            "geschlecht", List.of("W"),
+            "familienstand", List.of("L"),
+            "interesse", List.of("L", "R"),
+            "plz", List.of("1"),
+            "ort", List.of("Karls")
+        ),
+        "ungueltig", Map.of("nachname", List.of("a"), "unbekannt", List.of("x"))
+    );
+
+    @Param({"nachname", "kombiniert", "interessen", "alle", "ungueltig"})
+    private String queryParams;
+
+    @Param({"CONTAINS", "PREFIX"})
+    private SearchStrategy strategy;
+
+    private PredicateBuilder predicateBuilder;
+    private Map<String, List<String>> params;
+
+    /**
+     * PredicateBuilder ohne Spring-Container erzeugen.
+     */
+    @Setup
+    public void setup() {
+        predicateBuilder = new PredicateBuilder(new SearchProps(strategy));
+        params = QUERY_PARAMS.get(queryParams);
+    }
+
+    /**
+     * Prädikat für die WHERE-Klausel bauen.
+     *
+     * @return Das Prädikat, damit der JIT-Compiler den Aufruf nicht eliminiert
+     */
+    @Benchmark
+    public Optional<Predicate> build() {
+        return predicateBuilder.build(params);
+    }
+}
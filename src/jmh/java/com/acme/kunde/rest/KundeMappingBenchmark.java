@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.rest;
+
+import com.acme.kunde.entity.FamilienstandType;
+import com.acme.kunde.entity.GeschlechtType;
+import com.acme.kunde.entity.InteresseType;
+import com.acme.kunde.entity.Kunde;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.math.BigDecimal;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.AnnotationLinkRelationProvider;
+
+/**
+ * Microbenchmarks für das Mapping zwischen REST-Schnittstelle und Anwendungskern: {@linkplain KundeDTO#toKunde} beim
+ * Neuanlegen sowie {@linkplain KundeModel} mit Links und der Serialisierung durch Jackson als HAL beim Lesen.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class KundeMappingBenchmark {
+    private static final String BASE_URI = "https://localhost:8080/rest";
+
+    private KundeDTO kundeDTO;
+    private Kunde kunde;
+    private String idUri;
+    private ObjectWriter writer;
+
+    /**
+     * Testdaten und einen ObjectMapper wie bei Spring HATEOAS für "application/hal+json" vorbereiten.
+     *
+     * @throws MalformedURLException Falls die Homepage keine gültige URL ist
+     */
+    @Setup
+    public void setup() throws MalformedURLException {
+        kundeDTO = new KundeDTO(
+            "Benchmark",
+            "benchmark@acme.de",
+            1,
+            true,
+            LocalDate.of(2000, 1, 31),
+            URI.create("https://www.acme.de").toURL(),
+            GeschlechtType.WEIBLICH,
+            FamilienstandType.LEDIG,
+            new AdresseDTO("76133", "Karlsruhe"),
+            List.of(
+                new UmsatzDTO(BigDecimal.TEN, Currency.getInstance("EUR")),
+                new UmsatzDTO(BigDecimal.ONE, Currency.getInstance("CHF"))
+            ),
+            List.of(InteresseType.LESEN, InteresseType.REISEN)
+        );
+        kunde = kundeDTO.toKunde("benchmark");
+        kunde.setId(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+        idUri = BASE_URI + '/' + kunde.getId();
+
+        final var mapper = JsonMapper.builder()
+            .findAndAddModules()
+            .addModule(new Jackson2HalModule())
+            .handlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                new AnnotationLinkRelationProvider(),
+                CurieProvider.NONE,
+                MessageResolver.DEFAULTS_ONLY
+            ))
+            .build();
+        writer = mapper.writerFor(KundeModel.class);
+    }
+
+    /**
+     * Ein DTO aus einem POST-Request in ein Kunde-Objekt konvertieren.
+     *
+     * @return Das neue Kunde-Objekt
+     */
+    @Benchmark
+    public Kunde toKunde() {
+        return kundeDTO.toKunde("benchmark");
+    }
+
+    /**
+     * Ein Model-Objekt mit den Links wie bei GET mit einer ID erzeugen.
+     *
+     * @return Das Model-Objekt mit Links
+     */
+    @Benchmark
+    public KundeModel toModel() {
+        return kundeToModel();
+    }
+
+    /**
+     * Ein Model-Objekt mit Links erzeugen und als HAL-Dokument serialisieren.
+     *
+     * @return Der serialisierte JSON-Datensatz
+     * @throws JsonProcessingException Falls die Serialisierung fehlschlägt
+     */
+    @Benchmark
+    public byte[] toModelJson() throws JsonProcessingException {
+        return writer.writeValueAsBytes(kundeToModel());
+    }
+
+    private KundeModel kundeToModel() {
+        final var model = new KundeModel(kunde);
+        final var selfLink = Link.of(idUri);
+        final var listLink = Link.of(BASE_URI, LinkRelation.of("list"));
+        final var addLink = Link.of(BASE_URI, LinkRelation.of("add"));
+        final var updateLink = Link.of(idUri, LinkRelation.of("update"));
+        final var removeLink = Link.of(idUri, LinkRelation.of("remove"));
+        model.add(selfLink, listLink, addLink, updateLink, removeLink);
+        return model;
+    }
+}
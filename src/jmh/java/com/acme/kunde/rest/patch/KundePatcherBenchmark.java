@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.rest.patch;
+
+import com.acme.kunde.entity.InteresseType;
+import com.acme.kunde.entity.Kunde;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import static com.acme.kunde.rest.patch.PatchOperationType.ADD;
+import static com.acme.kunde.rest.patch.PatchOperationType.REMOVE;
+import static com.acme.kunde.rest.patch.PatchOperationType.REPLACE;
+
+/**
+ * Microbenchmark für {@linkplain KundePatcher#patch} mit gemischten Operationen: replace, add und remove.
+ * Das Hinzufügen und anschließende Entfernen desselben Interesses hält das Kunde-Objekt über alle Aufrufe stabil.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class KundePatcherBenchmark {
+    private static final List<PatchOperation> OPERATIONS = List.of(
+        new PatchOperation(REPLACE, "/nachname", "Neuername"),
+        new PatchOperation(REPLACE, "/email", "neu@acme.de"),
+        new PatchOperation(ADD, "/interessen", "L"),
+        new PatchOperation(ADD, "/interessen", "R"),
+        new PatchOperation(REMOVE, "/interessen", "L"),
+        new PatchOperation(REMOVE, "/interessen", "R")
+    );
+
+    private final KundePatcher patcher = new KundePatcher();
+    private Kunde kunde;
+    private MockHttpServletRequest request;
+
+    /**
+     * Kunde-Objekt und Request-Objekt vorbereiten.
+     */
+    @Setup
+    public void setup() {
+        kunde = Kunde.builder()
+            .nachname("Alpha")
+            .email("alpha@acme.de")
+            .interessen(new ArrayList<>(List.of(InteresseType.SPORT)))
+            .build();
+        request = new MockHttpServletRequest("PATCH", "/rest/00000000-0000-0000-0000-000000000001");
+    }
+
+    /**
+     * PATCH-Operationen auf das Kunde-Objekt anwenden.
+     *
+     * @return Das modifizierte Kunde-Objekt
+     */
+    @Benchmark
+    public Kunde patch() {
+        patcher.patch(kunde, OPERATIONS, request);
+        return kunde;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.security;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Microbenchmark für die Prüfung der Passwort-Regeln durch {@linkplain CustomUserDetailsService#checkPassword}.
+ * Das Hashing des Passworts ist nicht enthalten.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class CheckPasswordBenchmark {
+    /**
+     * Ein gültiges Passwort, ein zu kurzes und eines, das erst an der letzten Regel scheitert.
+     */
+    @Param({"Pass1234+", "p", "Pass12345678901234567890"})
+    private String password;
+
+    private CustomUserDetailsService service;
+
+    /**
+     * Der Service wird ohne Repository, PasswordEncoder und Timer erzeugt, weil checkPassword nichts davon benötigt.
+     */
+    @Setup
+    public void setup() {
+        service = new CustomUserDetailsService(null, null, null);
+    }
+
+    /**
+     * Das Passwort gegen die Regeln prüfen.
+     *
+     * @return true, falls das Passwort gültig ist
+     */
+    @Benchmark
+    public boolean checkPassword() {
+        return service.checkPassword(password);
+    }
+}
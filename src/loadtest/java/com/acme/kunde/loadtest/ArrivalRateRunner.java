@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.loadtest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Ein Szenario mit einer festen Ankunftsrate ausführen ("open model"): jeder Request hat einen geplanten
+ * Startzeitpunkt und wird in einem eigenen virtuellen Thread ausgeführt, unabhängig davon, wie viele Requests noch
+ * auf eine Antwort warten. Die Latenz wird ab dem geplanten Startzeitpunkt gemessen, damit ein langsamer Server
+ * nicht zu weniger Requests und damit zu geschönten Perzentilen führt ("coordinated omission").
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+final class ArrivalRateRunner {
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private ArrivalRateRunner() {
+    }
+
+    /**
+     * Ein Szenario mit der festen Ankunftsrate für die angegebene Dauer ausführen.
+     *
+     * @param scenario Das auszuführende Szenario
+     * @param rate Die Ankunftsrate in Requests pro Sekunde
+     * @param duration Die Dauer
+     * @return Das Ergebnis mit Latenz-Histogramm
+     */
+    static Result run(final Scenario scenario, final int rate, final Duration duration) {
+        final Histogram histogram = new ConcurrentHistogram(MAX_LATENCY_MICROS, SIGNIFICANT_DIGITS);
+        final var errors = new LongAdder();
+        final var intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        final var requests = duration.toNanos() / intervalNanos;
+        final var start = System.nanoTime();
+
+        // close() wartet auf alle gestarteten Requests
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < requests; i++) {
+                final var scheduled = start + i * intervalNanos;
+                final var delay = scheduled - System.nanoTime();
+                if (delay > 0) {
+                    LockSupport.parkNanos(delay);
+                }
+                executor.execute(() -> execute(scenario, scheduled, histogram, errors));
+            }
+        }
+
+        final var durationNanos = System.nanoTime() - start;
+        return new Result(scenario.name(), rate, requests, errors.sum(), durationNanos, histogram);
+    }
+
+    private static void execute(
+        final Scenario scenario,
+        final long scheduled,
+        final Histogram histogram,
+        final LongAdder errors
+    ) {
+        try {
+            if (!scenario.call().execute()) {
+                errors.increment();
+            }
+        } catch (final IOException | RuntimeException ex) {
+            errors.increment();
+        } catch (final InterruptedException ex) {
+            errors.increment();
+            Thread.currentThread().interrupt();
+        } finally {
+            final var latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled);
+            histogram.recordValue(Math.min(latencyMicros, MAX_LATENCY_MICROS));
+        }
+    }
+}
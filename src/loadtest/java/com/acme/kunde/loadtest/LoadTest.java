@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+/**
+ * Lasttest mit fester Ankunftsrate als Ersatz für fortio: der Server wird mit H2 gestartet (oder ein laufender Server
+ * verwendet), die Szenarien werden nacheinander zuerst aufgewärmt und dann gemessen. Die Ergebnisse werden auf der
+ * Konsole ausgegeben und an eine CSV-Datei angehängt, um verschiedene Releases zu vergleichen.
+ * <p>
+ * Aufruf: {@code gradle loadTest [-Ddb=h2|h2-postgres] [-Durl=http://localhost:8080] [-Drate=100]
+ * [-Dduration=PT30S] [-Dwarmup=PT10S] [-Dscenario=get-id,post] [-DmaxPinned=0]}
+ * </p>
+ * <p>
+ * Mit {@code -DmaxPinned=...} schlägt der Lasttest fehl, falls beim Server mehr Virtual Threads an ihren
+ * Carrier-Thread gebunden waren, siehe Actuator-Endpoint "pinning".
+ * </p>
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+public final class LoadTest {
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+
+    private LoadTest() {
+    }
+
+    /**
+     * Den Lasttest ausführen.
+     *
+     * @param args nicht benutzt
+     * @throws IOException Falls der Server nicht gestartet oder der Report nicht geschrieben werden kann
+     * @throws InterruptedException Falls der Lasttest unterbrochen wird
+     */
+    @SuppressWarnings("UseOfSystemOutOrSystemErr")
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        final var config = LoadTestConfig.fromSystemProperties();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final var client = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+
+            final var server = config.baseUri() == null ? ServerProcess.start(config, client) : null;
+            try {
+                final var baseUri = server == null ? config.baseUri() : server.baseUri();
+                final var target = server == null ? baseUri.toString() : config.db();
+                System.out.printf("Lasttest gegen %s (%s): rate=%d/s, duration=%s, warmup=%s%n",
+                    baseUri, target, config.rate(), config.duration(), config.warmup());
+
+                final var pinningCheck = new PinningCheck(client, baseUri, config.credentials());
+                if (config.maxPinned() >= 0) {
+                    pinningCheck.reset();
+                }
+
+                final var scenarios = new Scenarios(client, baseUri, config.credentials());
+                final var results = new ArrayList<Result>(config.scenarios().size());
+                for (final var name : config.scenarios()) {
+                    final var scenario = scenarios.create(name);
+                    if (!config.warmup().isZero()) {
+                        ArrivalRateRunner.run(scenario, config.rate(), config.warmup());
+                    }
+                    final var result = ArrivalRateRunner.run(scenario, config.rate(), config.duration());
+                    System.out.println(result.toText());
+                    results.add(result);
+                }
+                writeReport(config, target, results);
+                if (config.maxPinned() >= 0) {
+                    pinningCheck.check(config.maxPinned());
+                }
+            } finally {
+                if (server != null) {
+                    server.close();
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("UseOfSystemOutOrSystemErr")
+    private static void writeReport(final LoadTestConfig config, final String target, final Iterable<Result> results)
+        throws IOException {
+        final var report = config.report();
+        final var parent = report.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        final var lines = new ArrayList<String>();
+        if (Files.notExists(report)) {
+            lines.add(Result.CSV_HEADER);
+        }
+        final var zeitpunkt = OffsetDateTime.now().truncatedTo(ChronoUnit.SECONDS).toString();
+        results.forEach(result -> lines.add(result.toCsv(zeitpunkt, config.version(), target)));
+        Files.write(report, lines, CREATE, APPEND);
+        System.out.println("Report: " + report.toAbsolutePath());
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Konfiguration für den Lasttest aus den System Properties "loadtest.*", die von der Gradle-Task "loadTest" gesetzt
+ * werden.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param baseUri Basis-URI eines bereits laufenden Servers oder null, falls der Server gestartet werden soll
+ * @param db h2 oder h2-postgres für H2 im Kompatibilitätsmodus für PostgreSQL
+ * @param jar Das ausführbare JAR-Archiv des Servers
+ * @param enablePreview true, falls der Server mit "--enable-preview" gestartet werden muss
+ * @param logPath Verzeichnis für die Logdatei des gestarteten Servers
+ * @param version Die Version des Servers für den Report
+ * @param credentials Benutzername und Passwort durch ":" getrennt für Basic Authentication
+ * @param rate Ankunftsrate je Szenario in Requests pro Sekunde
+ * @param duration Dauer der Messung je Szenario
+ * @param warmup Dauer des Aufwärmens je Szenario, das nicht gemessen wird
+ * @param scenarios Die Namen der auszuführenden Szenarien
+ * @param report CSV-Datei, an die die Ergebnisse angehängt werden
+ * @param maxPinned Maximale Anzahl der Events "jdk.VirtualThreadPinned" beim Server oder -1 ohne Überprüfung
+ */
+record LoadTestConfig(
+    URI baseUri,
+    String db,
+    Path jar,
+    boolean enablePreview,
+    Path logPath,
+    String version,
+    String credentials,
+    int rate,
+    Duration duration,
+    Duration warmup,
+    List<String> scenarios,
+    Path report,
+    int maxPinned
+) {
+    private static final String PREFIX = "loadtest.";
+
+    /**
+     * Die Konfiguration aus den System Properties lesen.
+     *
+     * @return Die Konfiguration für den Lasttest
+     */
+    static LoadTestConfig fromSystemProperties() {
+        final var url = property("url", null);
+        final var scenarioNames = property("scenario", String.join(",", Scenarios.NAMES));
+        final var config = new LoadTestConfig(
+            url == null ? null : URI.create(url),
+            property("db", "h2"),
+            Path.of(property("jar", "build/libs/kunde.jar")),
+            Boolean.parseBoolean(property("enablePreview", "false")),
+            Path.of(property("logPath", "build/log")),
+            property("version", "unbekannt"),
+            property("credentials", "admin:p"),
+            Integer.parseInt(property("rate", "100")),
+            Duration.parse(property("duration", "PT30S")),
+            Duration.parse(property("warmup", "PT10S")),
+            Arrays.stream(scenarioNames.split(",")).map(String::strip).toList(),
+            Path.of(property("report", "build/reports/loadtest/loadtest.csv")),
+            Integer.parseInt(property("maxPinned", "-1"))
+        );
+        if (config.rate <= 0) {
+            throw new IllegalArgumentException("Fehler bei -Drate=..., d.h. Requests pro Sekunde > 0");
+        }
+        return config;
+    }
+
+    private static String property(final String name, final String defaultValue) {
+        final var value = System.getProperty(PREFIX + name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
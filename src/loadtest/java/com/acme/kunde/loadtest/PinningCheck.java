@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.regex.Pattern;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Überprüfung des Actuator-Endpoints "pinning" beim Server: Vor den Szenarien werden die Events zurückgesetzt und
+ * danach schlägt der Lasttest fehl, falls mehr Virtual Threads als erlaubt an ihren Carrier-Thread gebunden waren.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+final class PinningCheck {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final Pattern PINNED = Pattern.compile("\"pinned\"\\s*:\\s*(\\d+)");
+
+    private final HttpClient client;
+    private final URI pinningUri;
+    private final String authorization;
+
+    /**
+     * Konstruktor für die Überprüfung gegen einen laufenden Server.
+     *
+     * @param client Der HTTP-Client
+     * @param baseUri Die Basis-URI des Servers
+     * @param credentials Benutzername und Passwort durch ":" getrennt mit der Rolle ACTUATOR
+     */
+    PinningCheck(final HttpClient client, final URI baseUri, final String credentials) {
+        this.client = client;
+        pinningUri = baseUri.resolve("/actuator/pinning");
+        authorization = "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(UTF_8));
+    }
+
+    /**
+     * Die bisherigen Events beim Server verwerfen, z.B. vom Start des Servers.
+     *
+     * @throws IOException Falls der Endpoint nicht erreichbar ist
+     * @throws InterruptedException Falls der Request unterbrochen wird
+     */
+    void reset() throws IOException, InterruptedException {
+        final var request = request().DELETE().build();
+        final var status = client.send(request, BodyHandlers.discarding()).statusCode();
+        if (status >= 300) {
+            throw new IllegalStateException("Fehler beim Zuruecksetzen von " + pinningUri + ": Statuscode " + status);
+        }
+    }
+
+    /**
+     * Die Anzahl der Events seit dem Zurücksetzen mit dem erlaubten Maximum vergleichen.
+     *
+     * @param maxPinned Maximale Anzahl der Events "jdk.VirtualThreadPinned"
+     * @throws IOException Falls der Endpoint nicht erreichbar ist
+     * @throws InterruptedException Falls der Request unterbrochen wird
+     */
+    @SuppressWarnings("UseOfSystemOutOrSystemErr")
+    void check(final int maxPinned) throws IOException, InterruptedException {
+        final var body = client.send(request().GET().build(), BodyHandlers.ofString()).body();
+        final var matcher = PINNED.matcher(body);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Unerwartete Antwort von " + pinningUri + ": " + body);
+        }
+        final var pinned = Long.parseLong(matcher.group(1));
+        System.out.printf("Pinning: %d Events, erlaubt: %d%n", pinned, maxPinned);
+        if (pinned > maxPinned) {
+            System.out.println(body);
+            throw new IllegalStateException("Zu viele Virtual Threads mit Pinning: " + pinned + " > " + maxPinned);
+        }
+    }
+
+    private HttpRequest.Builder request() {
+        return HttpRequest.newBuilder(pinningUri)
+            .timeout(TIMEOUT)
+            .header("Authorization", authorization);
+    }
+}
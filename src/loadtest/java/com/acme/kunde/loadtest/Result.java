@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.loadtest;
+
+import java.util.Locale;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Ergebnis eines Szenarios mit dem Latenz-Histogramm in Mikrosekunden.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param scenario Der Name des Szenarios
+ * @param rate Die geplante Ankunftsrate in Requests pro Sekunde
+ * @param requests Anzahl der ausgeführten Requests
+ * @param errors Anzahl der Requests mit unerwartetem Statuscode oder Exception
+ * @param durationNanos Tatsächliche Dauer bis zur letzten Antwort in Nanosekunden
+ * @param histogram Die Latenzen in Mikrosekunden ab dem geplanten Startzeitpunkt
+ */
+record Result(String scenario, int rate, long requests, long errors, long durationNanos, Histogram histogram) {
+    /**
+     * Spaltenüberschriften für die CSV-Datei.
+     */
+    static final String CSV_HEADER = "zeitpunkt,version,db,szenario,rate,requests,fehler,durchsatz,p50_ms,p99_ms," +
+        "p999_ms,max_ms";
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final double MICROS_PER_MILLI = 1_000.0;
+    private static final double P50 = 50.0;
+    private static final double P99 = 99.0;
+    private static final double P999 = 99.9;
+
+    /**
+     * Durchsatz in erfolgreich beantworteten Requests pro Sekunde.
+     *
+     * @return Der Durchsatz
+     */
+    double throughput() {
+        return (requests - errors) * NANOS_PER_SECOND / durationNanos;
+    }
+
+    /**
+     * Eine Zeile für die Ausgabe auf der Konsole.
+     *
+     * @return Die formatierte Zeile
+     */
+    String toText() {
+        return String.format(
+            Locale.ROOT,
+            "%-13s rate=%5d/s  requests=%7d  fehler=%5d  durchsatz=%8.1f/s  p50=%8.2f ms  p99=%8.2f ms  " +
+                "p999=%8.2f ms  max=%8.2f ms",
+            scenario, rate, requests, errors, throughput(), millis(P50), millis(P99), millis(P999), maxMillis()
+        );
+    }
+
+    /**
+     * Eine Zeile für die CSV-Datei, um verschiedene Releases zu vergleichen.
+     *
+     * @param zeitpunkt Der Zeitpunkt des Lasttests
+     * @param version Die Version des Servers
+     * @param db Die verwendete Datenbank oder die URL des Servers
+     * @return Die Zeile mit den Werten durch "," getrennt
+     */
+    String toCsv(final String zeitpunkt, final String version, final String db) {
+        return String.format(
+            Locale.ROOT,
+            "%s,%s,%s,%s,%d,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f",
+            zeitpunkt, version, db, scenario, rate, requests, errors, throughput(), millis(P50), millis(P99),
+            millis(P999), maxMillis()
+        );
+    }
+
+    private double millis(final double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    private double maxMillis() {
+        return histogram.getMaxValue() / MICROS_PER_MILLI;
+    }
+}
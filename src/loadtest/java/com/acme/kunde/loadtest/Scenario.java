@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.loadtest;
+
+import java.io.IOException;
+
+/**
+ * Ein Szenario für den Lasttest, z.B. GET mit einer ID.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param name Der Name des Szenarios, z.B. get-id
+ * @param call Ein einzelner Aufruf, der bei jeder Ankunft ausgeführt wird
+ */
+record Scenario(String name, Call call) {
+    /**
+     * Ein einzelner Aufruf eines Szenarios.
+     */
+    @FunctionalInterface
+    interface Call {
+        /**
+         * Den Aufruf ausführen.
+         *
+         * @return true, falls der Statuscode der erwartete ist
+         * @throws IOException Falls bei der Kommunikation mit dem Server ein Fehler auftritt
+         * @throws InterruptedException Falls der aufrufende Thread unterbrochen wird
+         */
+        boolean execute() throws IOException, InterruptedException;
+    }
+}
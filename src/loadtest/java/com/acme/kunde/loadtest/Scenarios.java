@@ -0,0 +1,286 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Die Szenarien für den Lasttest. Für PUT und PATCH wird vorab ein Pool neuer Kunden angelegt, von denen jeder
+ * exklusiv für einen Aufruf entnommen wird, damit die Versionsnummer für If-Match stimmt.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+final class Scenarios {
+    /**
+     * Die Namen aller Szenarien.
+     */
+    static final List<String> NAMES = List.of(
+        "get-id", "get-id-etag", "search", "autocomplete", "post", "put", "patch", "graphql"
+    );
+
+    private static final String ID = "00000000-0000-0000-0000-000000000001";
+    private static final String HAL_JSON = "application/hal+json";
+    private static final String JSON = "application/json";
+    private static final String ACCEPT = "Accept";
+    private static final String AUTHORIZATION = "Authorization";
+    private static final String CONTENT_TYPE = "Content-Type";
+    private static final String ETAG = "ETag";
+    private static final String IF_MATCH = "If-Match";
+    private static final String LOCATION = "Location";
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final int POOL_SIZE = 64;
+
+    private static final String KUNDE_JSON = """
+        {
+          "nachname": "%s",
+          "email": "%s",
+          "kategorie": 1,
+          "hasNewsletter": true,
+          "geburtsdatum": "2000-01-31",
+          "homepage": "https://www.acme.de",
+          "geschlecht": "W",
+          "familienstand": "L",
+          "interessen": ["R", "L"]
+        }""";
+
+    private static final String KUNDE_USER_JSON = """
+        {
+          "kunde": {
+            "nachname": "Lasttest",
+            "email": "%s",
+            "kategorie": 1,
+            "hasNewsletter": true,
+            "geburtsdatum": "2000-01-31",
+            "homepage": "https://www.acme.de",
+            "geschlecht": "W",
+            "familienstand": "L",
+            "adresse": {"plz": "76133", "ort": "Karlsruhe"},
+            "umsaetze": [{"betrag": 1, "waehrung": "EUR"}],
+            "interessen": ["R", "L"]
+          },
+          "user": {"username": "%s", "password": "Pass123."}
+        }""";
+
+    private static final String PATCH_JSON = """
+        [{"op": "replace", "path": "/nachname", "value": "%s"}]""";
+
+    private static final String GRAPHQL_JSON = """
+        {"query": "{ kunde(id: \\"%s\\") { version nachname email kategorie interessen adresse { plz ort } } }"}\
+        """.formatted(ID);
+
+    private final HttpClient client;
+    private final URI restUri;
+    private final URI graphqlUri;
+    private final String authorization;
+    private final String runId;
+    private final AtomicLong counter = new AtomicLong();
+
+    /**
+     * Konstruktor für die Szenarien gegen einen laufenden Server.
+     *
+     * @param client Der HTTP-Client mit virtuellen Threads
+     * @param baseUri Die Basis-URI des Servers
+     * @param credentials Benutzername und Passwort durch ":" getrennt
+     */
+    Scenarios(final HttpClient client, final URI baseUri, final String credentials) {
+        this.client = client;
+        restUri = baseUri.resolve("/rest");
+        graphqlUri = baseUri.resolve("/graphql");
+        authorization = "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(UTF_8));
+        // eindeutige Emailadressen und Benutzernamen auch bei mehreren Laeufen gegen denselben Server
+        runId = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    }
+
+    /**
+     * Ein Szenario zum Namen erzeugen und ggf. die benötigten Daten anlegen.
+     *
+     * @param name Der Name des Szenarios
+     * @return Das Szenario
+     * @throws IOException Falls beim Anlegen der Daten ein Fehler auftritt
+     * @throws InterruptedException Falls das Anlegen der Daten unterbrochen wird
+     */
+    Scenario create(final String name) throws IOException, InterruptedException {
+        final Scenario.Call call = switch (name) {
+            case "get-id" -> getId();
+            case "get-id-etag" -> getIdEtag();
+            case "search" -> search();
+            case "autocomplete" -> autocomplete();
+            case "post" -> post();
+            case "put" -> put(createPool());
+            case "patch" -> patch(createPool());
+            case "graphql" -> graphql();
+            default -> throw new IllegalArgumentException("Fehler bei -Dscenario=" + String.join(",", NAMES));
+        };
+        return new Scenario(name, call);
+    }
+
+    private Scenario.Call getId() {
+        final var request = get(URI.create(restUri + "/" + ID), HAL_JSON).build();
+        return () -> send(request).statusCode() == 200;
+    }
+
+    private Scenario.Call getIdEtag() throws IOException, InterruptedException {
+        final var uri = URI.create(restUri + "/" + ID);
+        final var etag = send(get(uri, HAL_JSON).build())
+            .headers()
+            .firstValue(ETAG)
+            .orElseThrow(() -> new IllegalStateException("Kein ETag fuer " + uri));
+        final var request = get(uri, HAL_JSON).header("If-None-Match", etag).build();
+        return () -> send(request).statusCode() == 304;
+    }
+
+    private Scenario.Call search() {
+        final var request = get(URI.create(restUri + "?nachname=a"), HAL_JSON).build();
+        return () -> {
+            final var status = send(request).statusCode();
+            return status == 200 || status == 404;
+        };
+    }
+
+    private Scenario.Call autocomplete() {
+        final var request = get(URI.create(restUri + "/nachname/" + URLEncoder.encode("a", UTF_8)), JSON).build();
+        return () -> send(request).statusCode() == 200;
+    }
+
+    private Scenario.Call post() {
+        return () -> send(postRequest(nextEmail())).statusCode() == 201;
+    }
+
+    private Scenario.Call put(final BlockingQueue<PoolEntry> pool) {
+        return () -> {
+            final var entry = pool.take();
+            try {
+                final var body = KUNDE_JSON.formatted("Lastput", entry.email);
+                final var request = HttpRequest.newBuilder(entry.uri)
+                    .timeout(TIMEOUT)
+                    .header(AUTHORIZATION, authorization)
+                    .header(CONTENT_TYPE, JSON)
+                    .header(IF_MATCH, entry.etag)
+                    .PUT(BodyPublishers.ofString(body))
+                    .build();
+                return update(entry, send(request));
+            } finally {
+                pool.add(entry);
+            }
+        };
+    }
+
+    private Scenario.Call patch(final BlockingQueue<PoolEntry> pool) {
+        return () -> {
+            final var entry = pool.take();
+            try {
+                final var request = HttpRequest.newBuilder(entry.uri)
+                    .timeout(TIMEOUT)
+                    .header(AUTHORIZATION, authorization)
+                    .header(CONTENT_TYPE, JSON)
+                    .header(IF_MATCH, entry.etag)
+                    .method("PATCH", BodyPublishers.ofString(PATCH_JSON.formatted("Lastpatch")))
+                    .build();
+                return update(entry, send(request));
+            } finally {
+                pool.add(entry);
+            }
+        };
+    }
+
+    private Scenario.Call graphql() {
+        final var request = HttpRequest.newBuilder(graphqlUri)
+            .timeout(TIMEOUT)
+            .header(AUTHORIZATION, authorization)
+            .header(CONTENT_TYPE, JSON)
+            .POST(BodyPublishers.ofString(GRAPHQL_JSON))
+            .build();
+        return () -> send(request).statusCode() == 200;
+    }
+
+    private BlockingQueue<PoolEntry> createPool() throws IOException, InterruptedException {
+        final var pool = new ArrayBlockingQueue<PoolEntry>(POOL_SIZE);
+        for (var i = 0; i < POOL_SIZE; i++) {
+            final var email = nextEmail();
+            final var response = send(postRequest(email));
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Kunde nicht angelegt: Statuscode " + response.statusCode());
+            }
+            final var location = response.headers()
+                .firstValue(LOCATION)
+                .orElseThrow(() -> new IllegalStateException("Kein Location-Header"));
+            // ein neuer Kunde hat die Versionsnummer 0
+            pool.add(new PoolEntry(URI.create(location), email, "\"0\""));
+        }
+        return pool;
+    }
+
+    private static boolean update(final PoolEntry entry, final HttpResponse<Void> response) {
+        response.headers().firstValue(ETAG).ifPresent(etag -> entry.etag = etag);
+        return response.statusCode() == 204;
+    }
+
+    private HttpRequest postRequest(final String email) {
+        final var username = email.substring(0, email.indexOf('@'));
+        return HttpRequest.newBuilder(restUri)
+            .timeout(TIMEOUT)
+            .header(AUTHORIZATION, authorization)
+            .header(CONTENT_TYPE, JSON)
+            .POST(BodyPublishers.ofString(KUNDE_USER_JSON.formatted(email, username)))
+            .build();
+    }
+
+    private String nextEmail() {
+        return "lt" + runId + counter.incrementAndGet() + "@acme.de";
+    }
+
+    private HttpRequest.Builder get(final URI uri, final String accept) {
+        return HttpRequest.newBuilder(uri)
+            .timeout(TIMEOUT)
+            .header(AUTHORIZATION, authorization)
+            .header(ACCEPT, accept)
+            .GET();
+    }
+
+    private HttpResponse<Void> send(final HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, BodyHandlers.discarding());
+    }
+
+    /**
+     * Ein Kunde im Pool für PUT und PATCH mit der aktuellen Versionsnummer als ETag.
+     */
+    private static final class PoolEntry {
+        private final URI uri;
+        private final String email;
+        private String etag;
+
+        PoolEntry(final URI uri, final String email, final String etag) {
+            this.uri = uri;
+            this.email = email;
+            this.etag = etag;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Der Server als eigener Prozess mit H2 im Hauptspeicher, damit der Lasttest reproduzierbar ohne installierten
+ * DB-Server läuft.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+final class ServerProcess implements AutoCloseable {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(500);
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+    private static final String H2_URL = "jdbc:h2:mem:loadtest";
+
+    private final Process process;
+    private final URI baseUri;
+
+    private ServerProcess(final Process process, final URI baseUri) {
+        this.process = process;
+        this.baseUri = baseUri;
+    }
+
+    /**
+     * Den Server mit einem freien Port starten und warten, bis der Health-Endpoint erreichbar ist.
+     *
+     * @param config Die Konfiguration für den Lasttest
+     * @param client Der HTTP-Client, um den Health-Endpoint abzufragen
+     * @return Der gestartete Server
+     * @throws IOException Falls der Prozess nicht gestartet werden kann
+     * @throws InterruptedException Falls das Warten unterbrochen wird
+     */
+    static ServerProcess start(final LoadTestConfig config, final HttpClient client)
+        throws IOException, InterruptedException {
+        final var port = freePort();
+        final var command = new ArrayList<String>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        if (config.enablePreview()) {
+            command.add("--enable-preview");
+        }
+        command.add("-Dserver.port=" + port);
+        command.addAll(datasource(config.db()));
+        command.addAll(List.of(
+            "-Dspring.profiles.active=dev",
+            // ohne Mailserver: keine Emails und Health-Status UP
+            "-Dsmtp-deactivated=true",
+            "-Dmanagement.health.mail.enabled=false",
+            "-DLOG_PATH=" + config.logPath().toAbsolutePath(),
+            "-DAPPLICATION_LOGLEVEL=WARN",
+            "-DREQUEST_RESPONSE_LOGLEVEL=WARN",
+            "-DHIBERNATE_LOGLEVEL=WARN",
+            "-DFLYWAY_LOGLEVEL=WARN",
+            "-jar",
+            config.jar().toAbsolutePath().toString()
+        ));
+
+        Files.createDirectories(config.logPath());
+        final var logFile = config.logPath().resolve("loadtest-server.log").toFile();
+        final var process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(logFile)
+            .start();
+        final var server = new ServerProcess(process, URI.create("http://localhost:" + port));
+        server.awaitHealthy(client, logFile.toString());
+        return server;
+    }
+
+    /**
+     * Die Basis-URI des gestarteten Servers.
+     *
+     * @return Die Basis-URI, z.B. http://localhost:12345
+     */
+    URI baseUri() {
+        return baseUri;
+    }
+
+    /**
+     * Den Server herunterfahren und notfalls nach einem Timeout beenden.
+     */
+    @Override
+    public void close() {
+        process.destroy();
+        try {
+            if (!process.waitFor(SHUTDOWN_TIMEOUT.toSeconds(), TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (final InterruptedException ex) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static List<String> datasource(final String db) {
+        final var url = switch (db) {
+            case "h2" -> H2_URL;
+            // Stand-in fuer PostgreSQL: SQL-Dialekt, Bezeichner in Kleinbuchstaben, NULL-Werte beim Sortieren
+            case "h2-postgres" -> H2_URL + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+            default -> throw new IllegalArgumentException("Fehler bei -Ddb=h2|h2-postgres oder -Durl=...");
+        };
+        return List.of(
+            "-Dspring.datasource.url=" + url,
+            "-Dspring.datasource.username=sa",
+            "-Dspring.datasource.password="
+        );
+    }
+
+    private static int freePort() throws IOException {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private void awaitHealthy(final HttpClient client, final String logFile) throws InterruptedException {
+        final var request = HttpRequest.newBuilder(baseUri.resolve("/actuator/health"))
+            .timeout(POLL_INTERVAL.multipliedBy(2))
+            .build();
+        final var deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Der Server wurde beendet, siehe " + logFile);
+            }
+            try {
+                if (client.send(request, BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (final IOException ignored) {
+                // Server noch nicht bereit
+            }
+            Thread.sleep(POLL_INTERVAL);
+        }
+        process.destroyForcibly();
+        throw new IllegalStateException("Der Server ist nicht rechtzeitig gestartet, siehe " + logFile);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Adaptives Limit für gleichzeitige Requests nach AIMD: Ist ein Request schneller als die Latenzgrenze und das Limit
+ * mindestens zur Hälfte ausgeschöpft, wird das Limit um 1 erhöht. Ist ein Request langsamer oder wurde er wegen
+ * Überlast abgelehnt, wird das Limit mit dem Faktor "backoffRatio" multipliziert, und zwar höchstens einmal pro
+ * Zeitfenster in der Länge der Latenzgrenze. Dadurch senkt z.B. eine GC-Pause, die alle laufenden Requests gleichzeitig
+ * verlangsamt, das Limit nur einmal statt bis zur Untergrenze.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+final class AimdLimit {
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyNanos;
+    private final AtomicInteger limit;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final AtomicLong lastDecrease;
+
+    AimdLimit(final ConcurrencyLimitProps props, final Duration latency) {
+        minLimit = props.minLimit();
+        maxLimit = props.maxLimit();
+        backoffRatio = props.backoffRatio();
+        latencyNanos = latency.toNanos();
+        limit = new AtomicInteger(Math.max(minLimit, Math.min(maxLimit, props.initialLimit())));
+        lastDecrease = new AtomicLong(System.nanoTime() - latencyNanos);
+    }
+
+    /**
+     * Einen Platz reservieren, falls das Limit noch nicht erreicht ist.
+     *
+     * @return true, falls der Request ausgeführt werden darf
+     */
+    boolean tryAcquire() {
+        while (true) {
+            final var current = inflight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Den Platz freigeben und das Limit anhand der gemessenen Dauer anpassen.
+     *
+     * @param durationNanos Dauer des Requests in Nanosekunden
+     * @param overloaded true, falls der Request wegen Überlast fehlgeschlagen ist, z.B. mit Statuscode 503
+     */
+    void release(final long durationNanos, final boolean overloaded) {
+        final var inflightBefore = inflight.getAndDecrement();
+        if (overloaded || durationNanos > latencyNanos) {
+            final var now = System.nanoTime();
+            final var last = lastDecrease.get();
+            // nur der erste langsame Request im Zeitfenster reduziert das Limit
+            if (now - last >= latencyNanos && lastDecrease.compareAndSet(last, now)) {
+                limit.updateAndGet(current -> Math.max(minLimit, (int) (current * backoffRatio)));
+            }
+        } else if (inflightBefore * 2 >= limit.get()) {
+            limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+        }
+    }
+
+    /**
+     * Den Platz freigeben, ohne das Limit anzupassen, z.B. beim Start asynchroner Verarbeitung, deren Dauer nichts über
+     * die Überlast aussagt.
+     */
+    void release() {
+        inflight.decrementAndGet();
+    }
+
+    int getLimit() {
+        return limit.get();
+    }
+
+    int getInflight() {
+        return inflight.get();
+    }
+}
@@ -37,7 +37,23 @@ import static org.springframework.hateoas.support.WebStack.WEBMVC;
  */
 @SpringBootApplication(proxyBeanMethods = false)
 @Import({ApplicationConfig.class, DevConfig.class})
-@EnableConfigurationProperties(MailProps.class)
+@EnableConfigurationProperties({
+    MailProps.class,
+    AuthCacheProps.class,
+    PagingProps.class,
+    ExportProps.class,
+    BulkCreateProps.class,
+    NachnameIndexProps.class,
+    SearchProps.class,
+    EmailFilterProps.class,
+    MailOutboxProps.class,
+    EntityCacheProps.class,
+    ReplicaProps.class,
+    PasswordHashingProps.class,
+    ConcurrencyLimitProps.class,
+    PinningProps.class,
+    JfrProps.class
+})
 @EnableHypermediaSupport(type = HAL, stacks = WEBMVC)
 @EnableJpaRepositories
 @EnableWebSecurity
@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Spring-Konfiguration für Properties "app.auth-cache.*", d.h. für den Cache mit bereits überprüften
+ * Benutzerkennungen bei Basic Authentication.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param maxSize Maximale Anzahl an Einträgen im Cache
+ * @param ttl Gültigkeitsdauer eines Eintrags ab dem Abspeichern
+ */
+@ConfigurationProperties(prefix = "app.auth-cache")
+public record AuthCacheProps(
+    @DefaultValue("10000")
+    long maxSize,
+
+    @DefaultValue("5m")
+    Duration ttl
+) {
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Spring-Konfiguration für Properties "app.bulk-create.*", d.h. für das Neuanlegen vieler Kunden in einem Request.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param maxSize Maximale Anzahl an Kunden pro Request
+ * @param batchSize Anzahl der Kunden pro Transaktion, passend zu "hibernate.jdbc.batch_size"
+ */
+@ConfigurationProperties(prefix = "app.bulk-create")
+public record BulkCreateProps(
+    @DefaultValue("1000")
+    int maxSize,
+
+    @DefaultValue("50")
+    int batchSize
+) {
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde;
+
+import com.acme.kunde.entity.Adresse;
+import com.acme.kunde.entity.Kunde;
+import com.acme.kunde.security.Login;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import java.util.List;
+import java.util.OptionalLong;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import static org.hibernate.cache.jcache.ConfigSettings.CACHE_MANAGER;
+import static org.hibernate.cache.spi.RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+import static org.hibernate.cache.spi.RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+/**
+ * Konfiguration für den 2nd Level Cache von Hibernate mit JCache und Caffeine im Hauptspeicher.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+interface CacheConfig {
+    /**
+     * Bean-Definition für den CacheManager von JCache mit einer größen- und zeitbeschränkten Region pro Entity-Klasse,
+     * Natural ID und für die Query-Resultate.
+     *
+     * @param props Die Properties "app.entity-cache.*"
+     * @return Der CacheManager mit den Regionen
+     */
+    @Bean(destroyMethod = "close")
+    default CacheManager entityCacheManager(final EntityCacheProps props) {
+        final var provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        final var cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+        List.of(
+            Kunde.CACHE_REGION,
+            Kunde.EMAIL_CACHE_REGION,
+            Adresse.CACHE_REGION,
+            Login.CACHE_REGION,
+            Login.USERNAME_CACHE_REGION,
+            DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME
+        ).forEach(region -> {
+            if (cacheManager.getCache(region) == null) {
+                final var config = new CaffeineConfiguration<>();
+                config.setMaximumSize(OptionalLong.of(props.maxSize()));
+                config.setExpireAfterWrite(OptionalLong.of(props.ttl().toNanos()));
+                cacheManager.createCache(region, config);
+            }
+        });
+        // Zeitstempel der letzten Aenderung pro Tabelle fuer die Gueltigkeit der Query-Resultate: ohne Verdraengung
+        if (cacheManager.getCache(DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME) == null) {
+            cacheManager.createCache(DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, new CaffeineConfiguration<>());
+        }
+        return cacheManager;
+    }
+
+    /**
+     * Bean-Definition, damit Hibernate den konfigurierten CacheManager verwendet.
+     *
+     * @param entityCacheManager Der CacheManager mit den Regionen
+     * @return Objekt von HibernatePropertiesCustomizer
+     */
+    @Bean
+    default HibernatePropertiesCustomizer entityCacheCustomizer(final CacheManager entityCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(CACHE_MANAGER, entityCacheManager);
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+import static com.acme.kunde.security.AuthController.AUTH_PATH;
+import static com.acme.kunde.security.BoundedPasswordEncoder.HASHING_NANOS_ATTR;
+import static jakarta.servlet.http.HttpServletResponse.SC_SERVICE_UNAVAILABLE;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+
+/**
+ * Servlet-Filter zur Zugangskontrolle ("Admission Control"): Tomcat startet für jeden Request einen Virtual Thread,
+ * d.h. unter Überlast warten beliebig viele Requests z.B. auf eine DB-Verbindung. Dieser Filter begrenzt die Anzahl
+ * gleichzeitiger Requests getrennt für lesende und schreibende Requests sowie für Authentifizierung jeweils mit einem
+ * {@linkplain AimdLimit}. Überzählige Requests erhalten sofort den Statuscode 503 mit dem Header "Retry-After".
+ * <p>
+ * Der Filter läuft vor Spring Security, damit abgelehnte Requests kein Argon2-Hashing verursachen, und nach dem
+ * Filter für die Metrik "http.server.requests", damit abgelehnte Requests dort mitgezählt werden. Die Metriken
+ * "http.server.concurrency.limit", "http.server.concurrency.inflight" und "http.server.concurrency.rejected" haben
+ * das Tag "class" mit den Werten "read", "write" und "auth".
+ * </p>
+ * <p>
+ * Bei asynchroner Verarbeitung, z.B. beim Export als Stream, wird der Platz schon beim Start der asynchronen
+ * Verarbeitung freigegeben. Ein Export belegt stattdessen einen Thread des Executors und eine DB-Verbindung.
+ * </p>
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Slf4j
+final class ConcurrencyLimitFilter extends OncePerRequestFilter implements Ordered {
+    private static final String METRICS_NAME = "http.server.concurrency";
+    private static final String ACTUATOR_PATH = "/actuator";
+    private static final int ORDER = HIGHEST_PRECEDENCE + 10;
+
+    /**
+     * Klassen von Requests mit jeweils eigenem Limit.
+     */
+    enum TrafficClass {
+        /**
+         * Lesende Requests mit GET, HEAD oder OPTIONS.
+         */
+        READ,
+
+        /**
+         * Schreibende Requests einschließlich GraphQL, weil Queries und Mutations gleichermaßen POST verwenden.
+         */
+        WRITE,
+
+        /**
+         * Requests für Login und Rollen mit Argon2-Hashing.
+         */
+        AUTH
+    }
+
+    private final Map<TrafficClass, AimdLimit> limits = new EnumMap<>(TrafficClass.class);
+    private final Map<TrafficClass, Counter> rejected = new EnumMap<>(TrafficClass.class);
+    private final String retryAfterSeconds;
+
+    ConcurrencyLimitFilter(final ConcurrencyLimitProps props, final MeterRegistry meterRegistry) {
+        limits.put(TrafficClass.READ, new AimdLimit(props, props.readLatency()));
+        limits.put(TrafficClass.WRITE, new AimdLimit(props, props.writeLatency()));
+        limits.put(TrafficClass.AUTH, new AimdLimit(props, props.authLatency()));
+        limits.forEach((trafficClass, limit) -> {
+            final var tagValue = trafficClass.name().toLowerCase(Locale.ROOT);
+            Gauge.builder(METRICS_NAME + ".limit", limit, AimdLimit::getLimit)
+                .description("Aktuelles Limit fuer gleichzeitige Requests")
+                .tag("class", tagValue)
+                .register(meterRegistry);
+            Gauge.builder(METRICS_NAME + ".inflight", limit, AimdLimit::getInflight)
+                .description("Aktuell ausgefuehrte Requests")
+                .tag("class", tagValue)
+                .register(meterRegistry);
+            rejected.put(
+                trafficClass,
+                Counter.builder(METRICS_NAME + ".rejected")
+                    .description("Wegen des Limits mit 503 abgelehnte Requests")
+                    .tag("class", tagValue)
+                    .register(meterRegistry)
+            );
+        });
+        retryAfterSeconds = String.valueOf(Math.max(1L, props.retryAfter().toSeconds()));
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    // Health mit Liveness und Readiness fuer Kubernetes sowie Prometheus muessen auch unter Last erreichbar sein
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        return path(request).startsWith(ACTUATOR_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(
+        final HttpServletRequest request,
+        final HttpServletResponse response,
+        final FilterChain filterChain
+    ) throws ServletException, IOException {
+        final var trafficClass = classify(request);
+        final var limit = limits.get(trafficClass);
+        if (!limit.tryAcquire()) {
+            rejected.get(trafficClass).increment();
+            log.debug("doFilterInternal: {} abgelehnt, limit={}", trafficClass, limit.getLimit());
+            response.setHeader(RETRY_AFTER, retryAfterSeconds);
+            response.sendError(SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+
+        final var start = System.nanoTime();
+        // nur der Statuscode 503 zeigt Ueberlast an, nicht z.B. eine Exception wegen eines Programmierfehlers
+        var overloaded = false;
+        try {
+            filterChain.doFilter(request, response);
+            overloaded = response.getStatus() == SC_SERVICE_UNAVAILABLE;
+        } finally {
+            if (request.isAsyncStarted()) {
+                // z.B. Export als Stream: der Platz wird freigegeben, sobald der Request-Thread zurueckkehrt, damit
+                // lang laufende Downloads das Limit fuer lesende Requests nicht aufbrauchen
+                limit.release();
+            } else {
+                limit.release(System.nanoTime() - start - hashingNanos(request, trafficClass), overloaded);
+            }
+        }
+    }
+
+    // Argon2 bei Basic Authentication zaehlt nicht zur Latenz von read und write, z.B. bei einem Cache Miss
+    private static long hashingNanos(final HttpServletRequest request, final TrafficClass trafficClass) {
+        if (trafficClass == TrafficClass.AUTH) {
+            return 0L;
+        }
+        return request.getAttribute(HASHING_NANOS_ATTR) instanceof final Long nanos ? nanos : 0L;
+    }
+
+    private static TrafficClass classify(final HttpServletRequest request) {
+        if (path(request).startsWith(AUTH_PATH)) {
+            return TrafficClass.AUTH;
+        }
+        return switch (request.getMethod()) {
+            case "GET", "HEAD", "OPTIONS" -> TrafficClass.READ;
+            default -> TrafficClass.WRITE;
+        };
+    }
+
+    private static String path(final HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Spring-Konfiguration für Properties "app.concurrency-limit.*", d.h. für die adaptive Begrenzung gleichzeitiger
+ * Requests mit AIMD ("Additive Increase, Multiplicative Decrease") getrennt für lesende, schreibende Requests und
+ * Requests zur Authentifizierung.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param enabled Flag, ob die Begrenzung aktiv ist; standardmäßig nicht, weil die Latenzgrenzen je nach Umgebung
+ *      abgestimmt werden müssen
+ * @param initialLimit Anfangswert für die Anzahl gleichzeitiger Requests pro Klasse
+ * @param minLimit Untergrenze, auf die das Limit höchstens reduziert wird
+ * @param maxLimit Obergrenze, bis zu der das Limit höchstens erhöht wird
+ * @param backoffRatio Faktor, mit dem das Limit bei einem zu langsamen oder abgelehnten Request höchstens einmal pro
+ *      Latenzgrenze multipliziert wird
+ * @param readLatency Maximale Dauer eines lesenden Requests ohne Argon2 bei Basic Authentication, bevor das Limit
+ *      reduziert wird
+ * @param writeLatency Maximale Dauer eines schreibenden Requests ohne Argon2 bei Basic Authentication, bevor das Limit
+ *      reduziert wird
+ * @param authLatency Maximale Dauer eines Requests zur Authentifizierung, bevor das Limit reduziert wird
+ * @param retryAfter Wert für den Response-Header "Retry-After" bei einer Ablehnung
+ */
+@ConfigurationProperties(prefix = "app.concurrency-limit")
+public record ConcurrencyLimitProps(
+    @DefaultValue("false")
+    boolean enabled,
+
+    @DefaultValue("20")
+    int initialLimit,
+
+    @DefaultValue("2")
+    int minLimit,
+
+    @DefaultValue("200")
+    int maxLimit,
+
+    @DefaultValue("0.9")
+    double backoffRatio,
+
+    @DefaultValue("500ms")
+    Duration readLatency,
+
+    @DefaultValue("2s")
+    Duration writeLatency,
+
+    @DefaultValue("2s")
+    Duration authLatency,
+
+    @DefaultValue("1s")
+    Duration retryAfter
+) {
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.stream.IntStream;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+/**
+ * Konfiguration für Read Replicas: Mit "app.replica.enabled=true" werden Transaktionen mit
+ * {@code @Transactional(readOnly = true)} an die Read Replicas aus "app.replica.urls" weitergeleitet. Ohne diese
+ * Property bleibt es bei der DataSource, die Spring Boot aus "spring.datasource.*" erzeugt.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+interface DataSourceConfig {
+    /**
+     * Bean-Definition für den Connection-Pool der primären DB mit den Properties "spring.datasource.*" und
+     * "spring.datasource.hikari.*" wie bei der Autokonfiguration durch Spring Boot.
+     *
+     * @param properties Die Properties "spring.datasource.*"
+     * @return Der Connection-Pool für die primäre DB
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.replica", name = "enabled", havingValue = "true")
+    @ConfigurationProperties("spring.datasource.hikari")
+    default HikariDataSource primaryDataSource(final DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Bean-Definition für die DataSource, die u.a. von JPA und Flyway verwendet wird und lesende Transaktionen an die
+     * Read Replicas weiterleitet.
+     *
+     * @param primaryDataSource Der Connection-Pool für die primäre DB
+     * @param dataSourceProperties Die Properties "spring.datasource.*" für Benutzername und Passwort
+     * @param props Die Properties "app.replica.*"
+     * @param readYourWrites Die Benutzer mit eigenen Änderungen innerhalb der Zeitspanne "app.replica.stickiness"
+     * @param executor Executor mit Virtual Threads für die Prüfung der Read Replicas
+     * @param meterRegistry MeterRegistry von Micrometer für die Metriken der Connection-Pools und der Weiterleitung
+     * @return Die DataSource mit den Connection-Pools für die primäre DB und die Read Replicas
+     */
+    @Bean(destroyMethod = "close")
+    @Primary
+    @ConditionalOnProperty(prefix = "app.replica", name = "enabled", havingValue = "true")
+    default ReplicaRoutingDataSource dataSource(
+        final HikariDataSource primaryDataSource,
+        final DataSourceProperties dataSourceProperties,
+        final ReplicaProps props,
+        final ReadYourWrites readYourWrites,
+        final AsyncTaskExecutor executor,
+        final MeterRegistry meterRegistry
+    ) {
+        final var urls = props.urls();
+        final var username = props.username() == null ? dataSourceProperties.determineUsername() : props.username();
+        final var password = props.password() == null ? dataSourceProperties.determinePassword() : props.password();
+        final var replicaPools = IntStream.range(0, urls.size())
+            .mapToObj(i -> {
+                final var pool = new HikariDataSource();
+                pool.setPoolName("replica-" + i);
+                pool.setJdbcUrl(urls.get(i));
+                pool.setUsername(username);
+                pool.setPassword(password);
+                pool.setReadOnly(true);
+                pool.setMaximumPoolSize(props.maxPoolSize());
+                pool.setConnectionTimeout(props.connectionTimeout().toMillis());
+                // die Anwendung startet auch dann, wenn eine Read Replica nicht verfuegbar ist
+                pool.setInitializationFailTimeout(-1);
+                // Metriken "hikaricp.connections.*" mit pool=replica-0, ...
+                pool.setMetricRegistry(meterRegistry);
+                return pool;
+            })
+            .toList();
+        return new ReplicaRoutingDataSource(
+            primaryDataSource,
+            replicaPools,
+            readYourWrites,
+            props.healthCheckInterval(),
+            executor,
+            meterRegistry
+        );
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Spring-Konfiguration für Properties "app.entity-cache.*", d.h. für die Regionen im 2nd Level Cache von Hibernate.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param maxSize Maximale Anzahl an Einträgen pro Region
+ * @param ttl Dauer, nach der ein Eintrag seit dem Schreiben ungültig wird
+ */
+@ConfigurationProperties(prefix = "app.entity-cache")
+public record EntityCacheProps(
+    @DefaultValue("10000")
+    long maxSize,
+
+    @DefaultValue("10m")
+    Duration ttl
+) {
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Spring-Konfiguration für Properties "app.export.*", d.h. für den Export aller Kunden als Stream.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param fetchSize Anzahl der Datensätze, die der JDBC-Treiber jeweils aus der DB holt
+ * @param flushSize Anzahl der Datensätze, nach denen der Ausgabestrom an den Client geschrieben wird
+ * @param timeout Maximale Dauer eines Exports, unabhängig vom Timeout für andere asynchrone Requests
+ */
+@ConfigurationProperties(prefix = "app.export")
+public record ExportProps(
+    @DefaultValue("500")
+    int fetchSize,
+
+    @DefaultValue("1000")
+    int flushSize,
+
+    @DefaultValue("2h")
+    Duration timeout
+) {
+}
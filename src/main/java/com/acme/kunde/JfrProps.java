@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Spring-Konfiguration für Properties "app.jfr.*", d.h. für die ständige Aufzeichnung mit Java Flight Recorder (JFR)
+ * als Ringpuffer, der über den Actuator-Endpoint "jfr" bei Bedarf ausgelesen wird.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param enabled Flag, ob die Aufzeichnung beim Start der Anwendung gestartet wird
+ * @param settings Name der JFR-Konfiguration im JDK: "default" mit ca. 1% Overhead oder "profile"
+ * @param maxAge Maximales Alter der aufgezeichneten Events im Ringpuffer
+ * @param maxSize Maximale Größe des Ringpuffers
+ * @param threshold Mindestdauer für Events zu Locks, Thread-Parking und Sockets, d.h. auch für JDBC
+ * @param allocationThrottle Maximale Anzahl der Events für Allokationen, z.B. "150/s"
+ * @param dumpAge Zeitspanne für den Dump, falls beim Actuator-Endpoint keine Minuten angegeben sind
+ */
+@ConfigurationProperties(prefix = "app.jfr")
+public record JfrProps(
+    @DefaultValue("true")
+    boolean enabled,
+
+    @DefaultValue("default")
+    String settings,
+
+    @DefaultValue("30m")
+    Duration maxAge,
+
+    @DefaultValue("250MB")
+    DataSize maxSize,
+
+    @DefaultValue("20ms")
+    Duration threshold,
+
+    @DefaultValue("150/s")
+    String allocationThrottle,
+
+    @DefaultValue("5m")
+    Duration dumpAge
+) {
+}
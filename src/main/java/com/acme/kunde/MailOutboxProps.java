@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Spring-Konfiguration für Properties "app.mail-outbox.*", d.h. für das asynchrone Versenden der Emails aus der
+ * Outbox.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param batchSize Maximale Anzahl an Emails, die über dieselbe SMTP-Verbindung versendet werden
+ * @param pollInterval Zeitabstand, in dem die Outbox auch ohne neue Emails auf fällige Wiederholungen geprüft wird
+ * @param initialBackoff Wartezeit nach dem ersten fehlgeschlagenen Versuch, die sich danach jeweils verdoppelt
+ * @param maxBackoff Maximale Wartezeit zwischen zwei Versuchen
+ * @param maxAttempts Maximale Anzahl an Versuchen, nach denen die Email als fehlgeschlagen markiert wird
+ */
+@ConfigurationProperties(prefix = "app.mail-outbox")
+public record MailOutboxProps(
+    @DefaultValue("50")
+    int batchSize,
+
+    @DefaultValue("30s")
+    Duration pollInterval,
+
+    @DefaultValue("10s")
+    Duration initialBackoff,
+
+    @DefaultValue("1h")
+    Duration maxBackoff,
+
+    @DefaultValue("10")
+    int maxAttempts
+) {
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde;
+
+import com.acme.kunde.jfr.MethodCallEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Zeitmessung für Methoden der Anwendungslogik durch Timer von Micrometer mit Histogrammen für Perzentile, z.B.
+ * <code>histogram_quantile(0.99, sum by (le, method) (rate(kunde_read_seconds_bucket[5m])))</code> bei Prometheus.
+ * <p>
+ * Jeder Timer hat die Tags "method", "exception" mit dem einfachen Klassennamen oder "none" und "result" mit "hit",
+ * "miss" oder "none", so dass alle Timer mit demselben Namen dieselben Tag-Schlüssel haben, wie es Prometheus
+ * erfordert. Die Werte der Tags dürfen nur wenige verschiedene Ausprägungen haben, d.h. keine IDs oder Suchbegriffe.
+ * </p>
+ * <p>
+ * Zusätzlich wird jeder Aufruf als JFR-Event {@linkplain MethodCallEvent} mit Methode und Suchkriterium
+ * aufgezeichnet, sofern JFR läuft, z.B. durch die ständige Aufzeichnung im Actuator-Endpoint "jfr".
+ * </p>
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+@RequiredArgsConstructor
+public final class MethodTimer {
+    /**
+     * Wert für die Tags "exception" und "result", falls es keine Exception bzw. kein Ergebnis für Treffer gibt.
+     */
+    public static final String NONE = "none";
+
+    /**
+     * Schlüssel für das Tag mit dem Suchkriterium, z.B. "id" oder "nachname".
+     */
+    public static final String CRITERION_TAG = "criterion";
+
+    private static final String METHOD_TAG = "method";
+    private static final String EXCEPTION_TAG = "exception";
+    private static final String RESULT_TAG = "result";
+    private static final String HIT = "hit";
+    private static final String MISS = "miss";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Die Dauer einer Methode messen.
+     *
+     * @param name Name des Timers, z.B. "kunde.write"
+     * @param method Name der Methode
+     * @param tags Weitere Tags, die für alle Methoden mit demselben Timer-Namen dieselben Schlüssel haben
+     * @param operation Der Rumpf der Methode
+     * @param <T> Der Typ des Ergebnisses
+     * @return Das Ergebnis der Methode
+     */
+    public <T> T record(final String name, final String method, final Tags tags, final Supplier<T> operation) {
+        return record(name, method, tags, operation, result -> NONE);
+    }
+
+    /**
+     * Die Dauer einer Methode ohne Ergebnis messen.
+     *
+     * @param name Name des Timers, z.B. "kunde.write"
+     * @param method Name der Methode
+     * @param tags Weitere Tags, die für alle Methoden mit demselben Timer-Namen dieselben Schlüssel haben
+     * @param operation Der Rumpf der Methode
+     */
+    public void record(final String name, final String method, final Tags tags, final Runnable operation) {
+        record(name, method, tags, () -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    /**
+     * Die Dauer einer Suche messen, wobei das Tag "result" angibt, ob etwas gefunden wurde.
+     *
+     * @param name Name des Timers, z.B. "kunde.read"
+     * @param method Name der Methode
+     * @param tags Weitere Tags, die für alle Methoden mit demselben Timer-Namen dieselben Schlüssel haben
+     * @param operation Die Suche
+     * @param hit Prüfung, ob das Ergebnis ein Treffer ist, z.B. <code>Optional::isPresent</code>
+     * @param <T> Der Typ des Ergebnisses
+     * @return Das Ergebnis der Suche
+     */
+    public <T> T recordLookup(
+        final String name,
+        final String method,
+        final Tags tags,
+        final Supplier<T> operation,
+        final Predicate<? super T> hit
+    ) {
+        return record(name, method, tags, operation, result -> hit.test(result) ? HIT : MISS);
+    }
+
+    private <T> T record(
+        final String name,
+        final String method,
+        final Tags tags,
+        final Supplier<T> operation,
+        final Function<? super T, String> resultTag
+    ) {
+        final var event = new MethodCallEvent();
+        event.begin();
+        final var sample = Timer.start(meterRegistry);
+        try {
+            final var result = operation.get();
+            final var resultValue = resultTag.apply(result);
+            sample.stop(timer(name, method, tags, NONE, resultValue));
+            event.finish(name, method, tags, NONE, resultValue);
+            return result;
+        } catch (final RuntimeException | Error ex) {
+            final var exception = ex.getClass().getSimpleName();
+            sample.stop(timer(name, method, tags, exception, NONE));
+            event.finish(name, method, tags, exception, NONE);
+            throw ex;
+        }
+    }
+
+    private Timer timer(
+        final String name,
+        final String method,
+        final Tags tags,
+        final String exception,
+        final String result
+    ) {
+        return Timer.builder(name)
+            .tags(tags)
+            .tag(METHOD_TAG, method)
+            .tag(EXCEPTION_TAG, exception)
+            .tag(RESULT_TAG, result)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Spring-Konfiguration für Properties "app.password-hashing.*", d.h. für den Thread-Pool, in dem Passwörter mit
+ * Argon2 verschlüsselt und überprüft werden.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param threads Anzahl der Threads oder 0 für die Anzahl der CPU-Kerne
+ * @param queueCapacity Maximale Anzahl wartender Aufrufe, bevor mit dem Statuscode 503 abgelehnt wird
+ * @param retryAfter Wert für den Response-Header "Retry-After" bei einer Ablehnung
+ */
+@ConfigurationProperties(prefix = "app.password-hashing")
+public record PasswordHashingProps(
+    @DefaultValue("0")
+    int threads,
+
+    @DefaultValue("32")
+    int queueCapacity,
+
+    @DefaultValue("1s")
+    Duration retryAfter
+) {
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Spring-Konfiguration für Properties "app.pinning.*", d.h. für die Erkennung von Virtual Threads, die z.B. durch
+ * Blockieren in einem synchronized-Block an ihren Carrier-Thread gebunden sind ("Pinning").
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param enabled Flag, ob die JFR-Events "jdk.VirtualThreadPinned" und "jdk.VirtualThreadSubmitFailed" ausgewertet
+ *                werden
+ * @param threshold Mindestdauer, ab der JFR ein Pinning als Event meldet
+ * @param stackDepth Anzahl der Stack-Frames pro Eintrag im Actuator-Endpoint "pinning"
+ * @param maxFrames Maximale Anzahl unterschiedlicher Stack-Frames, danach werden Events unter "other" gezählt
+ */
+@ConfigurationProperties(prefix = "app.pinning")
+public record PinningProps(
+    @DefaultValue("true")
+    boolean enabled,
+
+    @DefaultValue("20ms")
+    Duration threshold,
+
+    @DefaultValue("8")
+    int stackDepth,
+
+    @DefaultValue("100")
+    int maxFrames
+) {
+}
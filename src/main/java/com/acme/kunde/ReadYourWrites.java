@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import static java.util.Locale.GERMAN;
+
+/**
+ * "Read your writes" bei Read Replicas: Nach einer eigenen Änderung liest ein Benutzer für die Zeitspanne
+ * "app.replica.stickiness" aus der primären DB, damit er seine Änderung trotz der Verzögerung bei der Replikation
+ * sieht. Die Zeitspanne beginnt mit dem Commit der Transaktion.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+@Slf4j
+public final class ReadYourWrites {
+    private static final long MAX_SIZE = 100_000;
+
+    private final boolean enabled;
+    private final Cache<String, Boolean> writers;
+
+    ReadYourWrites(final ReplicaProps props) {
+        enabled = props.enabled();
+        writers = Caffeine.newBuilder()
+            .maximumSize(MAX_SIZE)
+            .expireAfterWrite(props.stickiness())
+            .build();
+    }
+
+    /**
+     * Eine Änderung durch den aktuell authentifizierten Benutzer vermerken.
+     */
+    public void markWrite() {
+        markWrite(currentUsername());
+    }
+
+    /**
+     * Eine Änderung für einen Benutzer vermerken, z.B. für einen neu angelegten Kunden.
+     *
+     * @param username Der Benutzername oder null
+     */
+    public void markWrite(final String username) {
+        if (!enabled || username == null) {
+            return;
+        }
+        final var key = username.toLowerCase(GERMAN);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            writers.put(key, Boolean.TRUE);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                writers.put(key, Boolean.TRUE);
+                log.trace("markWrite: username={}", key);
+            }
+        });
+    }
+
+    /**
+     * Abfrage, ob der aktuell authentifizierte Benutzer vor kurzem etwas geändert hat und deshalb aus der primären DB
+     * lesen soll.
+     *
+     * @return true, falls die letzte Änderung innerhalb der Zeitspanne "app.replica.stickiness" liegt
+     */
+    public boolean isCurrentUserSticky() {
+        final var username = currentUsername();
+        return username != null && writers.getIfPresent(username.toLowerCase(GERMAN)) != null;
+    }
+
+    private static String currentUsername() {
+        final var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null
+            || authentication instanceof AnonymousAuthenticationToken
+            || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
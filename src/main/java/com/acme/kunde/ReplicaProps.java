@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Spring-Konfiguration für Properties "app.replica.*", d.h. für Read Replicas, an die Transaktionen mit
+ * {@code @Transactional(readOnly = true)} weitergeleitet werden.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param enabled Flag, ob die Read Replicas verwendet werden
+ * @param urls JDBC-URLs der Read Replicas
+ * @param username Benutzername für die Read Replicas oder null für denselben wie bei "spring.datasource.username"
+ * @param password Passwort für die Read Replicas oder null für dasselbe wie bei "spring.datasource.password"
+ * @param maxPoolSize Maximale Anzahl an Verbindungen im Pool pro Read Replica
+ * @param connectionTimeout Maximale Wartezeit auf eine Verbindung, bevor auf eine andere Read Replica bzw. auf die
+ *                          primäre DB ausgewichen wird
+ * @param healthCheckInterval Zeitabstand, in dem die Read Replicas auf Verfügbarkeit geprüft werden
+ * @param stickiness Zeitspanne nach einer eigenen Änderung, in der ein Benutzer aus der primären DB liest
+ */
+@ConfigurationProperties(prefix = "app.replica")
+public record ReplicaProps(
+    @DefaultValue("false")
+    boolean enabled,
+
+    @DefaultValue
+    List<String> urls,
+
+    String username,
+
+    String password,
+
+    @DefaultValue("10")
+    int maxPoolSize,
+
+    @DefaultValue("1s")
+    Duration connectionTimeout,
+
+    @DefaultValue("5s")
+    Duration healthCheckInterval,
+
+    @DefaultValue("5s")
+    Duration stickiness
+) {
+}
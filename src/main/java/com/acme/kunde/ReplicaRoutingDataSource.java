@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * DataSource, die Transaktionen mit {@code @Transactional(readOnly = true)} reihum an die verfügbaren Read Replicas
+ * und alle anderen Zugriffe an die primäre DB weiterleitet. Eine Read Replica, zu der keine Verbindung aufgebaut
+ * werden kann, wird bis zur nächsten erfolgreichen Prüfung übersprungen. Sind alle Read Replicas nicht verfügbar
+ * oder hat der aktuelle Benutzer vor kurzem etwas geändert (siehe {@linkplain ReadYourWrites}), wird aus der
+ * primären DB gelesen.
+ * <p>
+ * Abfragen mit dem Query-Cache von Hibernate dürfen nicht aus einer Read Replica lesen: ein veraltetes Ergebnis würde
+ * nach der Invalidierung durch eine Änderung erneut gecacht. Solche Abfragen werden deshalb ohne readOnly-Transaktion
+ * ausgeführt, z.B. <code>KundeRepository.findNachnamenByPrefix()</code>.
+ * </p>
+ * <p>
+ * Die Verbindung wird erst bei der ersten SQL-Anweisung geholt, weil das Flag "readOnly" der Transaktion beim Beginn
+ * der Transaktion durch den JpaTransactionManager noch nicht gesetzt ist.
+ * </p>
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Slf4j
+final class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+    private static final String METRICS_NAME = "kunde.datasource.routing";
+
+    private final List<Replica> replicas;
+    private final Duration healthCheckInterval;
+    private volatile boolean running = true;
+
+    ReplicaRoutingDataSource(
+        final DataSource primary,
+        final List<HikariDataSource> replicaPools,
+        final ReadYourWrites readYourWrites,
+        final Duration healthCheckInterval,
+        final Executor executor,
+        final MeterRegistry meterRegistry
+    ) {
+        replicas = replicaPools.stream().map(Replica::new).toList();
+        this.healthCheckInterval = healthCheckInterval;
+        setTargetDataSource(new Router(primary, replicas, readYourWrites, meterRegistry));
+        afterPropertiesSet();
+        executor.execute(this::checkHealth);
+        log.info("ReplicaRoutingDataSource: replicas={}", replicaPools.stream().map(HikariDataSource::getJdbcUrl).toList());
+    }
+
+    /**
+     * Die Prüfung der Read Replicas beenden und deren Pools schließen.
+     */
+    @Override
+    public void close() {
+        running = false;
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private void checkHealth() {
+        final var timeoutSeconds = (int) Math.max(1, healthCheckInterval.toSeconds());
+        while (running) {
+            replicas.forEach(replica -> {
+                boolean up;
+                try (var connection = replica.pool.getConnection()) {
+                    up = connection.isValid(timeoutSeconds);
+                } catch (final SQLException | RuntimeException ex) {
+                    // RuntimeException von Hikari z.B. bei einem fehlenden JDBC-Treiber
+                    up = false;
+                }
+                replica.setUp(up);
+            });
+
+            try {
+                //noinspection BusyWait
+                Thread.sleep(healthCheckInterval);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @SuppressWarnings("PackageVisibleField")
+    private static final class Replica {
+        final HikariDataSource pool;
+        volatile boolean up = true;
+
+        Replica(final HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        void setUp(final boolean up) {
+            if (this.up != up) {
+                this.up = up;
+                if (up) {
+                    log.info("Read Replica {} ist wieder verfuegbar", pool.getPoolName());
+                } else {
+                    log.warn("Read Replica {} ist nicht verfuegbar", pool.getPoolName());
+                }
+            }
+        }
+    }
+
+    private static final class Router extends AbstractDataSource {
+        private final DataSource primary;
+        private final List<Replica> replicas;
+        private final ReadYourWrites readYourWrites;
+        private final AtomicInteger next = new AtomicInteger();
+        private final Counter primaryCounter;
+        private final Counter replicaCounter;
+        private final Counter fallbackCounter;
+
+        Router(
+            final DataSource primary,
+            final List<Replica> replicas,
+            final ReadYourWrites readYourWrites,
+            final MeterRegistry meterRegistry
+        ) {
+            this.primary = primary;
+            this.replicas = replicas;
+            this.readYourWrites = readYourWrites;
+            primaryCounter = meterRegistry.counter(METRICS_NAME, "target", "primary");
+            replicaCounter = meterRegistry.counter(METRICS_NAME, "target", "replica");
+            fallbackCounter = meterRegistry.counter(METRICS_NAME, "target", "fallback");
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || readYourWrites.isCurrentUserSticky()) {
+                primaryCounter.increment();
+                return primary.getConnection();
+            }
+
+            // reihum beginnend bei der naechsten Read Replica, bei einem Fehler die uebrigen Read Replicas
+            final var anzahl = replicas.size();
+            final var start = Math.floorMod(next.getAndIncrement(), anzahl);
+            for (var i = 0; i < anzahl; i++) {
+                final var replica = replicas.get((start + i) % anzahl);
+                if (!replica.up) {
+                    continue;
+                }
+                try {
+                    final var connection = replica.pool.getConnection();
+                    replicaCounter.increment();
+                    return connection;
+                } catch (final SQLException | RuntimeException ex) {
+                    log.debug("getConnection: {}", ex.getMessage());
+                    replica.setUp(false);
+                }
+            }
+
+            fallbackCounter.increment();
+            return primary.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(final String username, final String password) throws SQLException {
+            // Benutzername und Passwort sind nur fuer die primaere DB konfiguriert
+            return primary.getConnection(username, password);
+        }
+    }
+}
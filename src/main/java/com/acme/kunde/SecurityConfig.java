@@ -16,6 +16,10 @@
  */
 package com.acme.kunde;
 
+import com.acme.kunde.jfr.JfrEndpoint;
+import com.acme.kunde.security.BoundedPasswordEncoder;
+import com.acme.kunde.security.PasswordHashingBusyEntryPoint;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.Map;
 import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.boot.actuate.health.HealthEndpoint;
@@ -27,8 +31,10 @@ import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import static com.acme.kunde.rest.KundeExportController.EXPORT_PATH;
 import static com.acme.kunde.rest.KundeGetController.NACHNAME_PATH;
 import static com.acme.kunde.rest.KundeGetController.REST_PATH;
+import static com.acme.kunde.rest.KundeWriteController.BULK_PATH;
 import static com.acme.kunde.security.AuthController.AUTH_PATH;
 import static com.acme.kunde.security.Rolle.ACTUATOR;
 import static com.acme.kunde.security.Rolle.ADMIN;
@@ -38,7 +44,8 @@ import static org.springframework.http.HttpMethod.GET;
 import static org.springframework.http.HttpMethod.PATCH;
 import static org.springframework.http.HttpMethod.POST;
 import static org.springframework.http.HttpMethod.PUT;
-import static org.springframework.security.config.Customizer.withDefaults;
+import static org.springframework.security.authorization.AuthorityAuthorizationManager.hasRole;
+import static org.springframework.security.authorization.AuthorizationManagers.allOf;
 
 // https://github.com/spring-projects/spring-security/tree/master/samples
 /**
@@ -71,7 +78,7 @@ interface SecurityConfig {
                 // https://spring.io/blog/2019/11/21/spring-security-lambda-dsl
                 final var restPathKundeId = REST_PATH + "/*";
                 authorize
-                    .requestMatchers(GET, REST_PATH).hasRole(ADMIN.name())
+                    .requestMatchers(GET, REST_PATH, REST_PATH + EXPORT_PATH).hasRole(ADMIN.name())
                     .requestMatchers(GET, restPathKundeId).hasAnyRole(ADMIN.name(), KUNDE.name())
                     .requestMatchers(PUT, restPathKundeId).hasRole(ADMIN.name())
                     .requestMatchers(PATCH, restPathKundeId).hasRole(ADMIN.name())
@@ -80,9 +87,13 @@ interface SecurityConfig {
                     .requestMatchers(GET, AUTH_PATH + "/rollen", REST_PATH + NACHNAME_PATH + "/*").hasRole(KUNDE.name())
                     // Actuator: Health mit Liveness und Readiness wird von Kubernetes genutzt
                     .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
-                    // ggf. PrometheusScrapeEndpoint
+                    // JFR-Dumps enthalten u.a. System Properties
+                    .requestMatchers(EndpointRequest.to(JfrEndpoint.class))
+                        .access(allOf(hasRole(ADMIN.name()), hasRole(ACTUATOR.name())))
+                    // alle anderen Endpoints einschliesslich /actuator/prometheus
                     .requestMatchers(EndpointRequest.toAnyEndpoint()).hasRole(ACTUATOR.name())
 
+                    .requestMatchers(POST, REST_PATH + BULK_PATH).hasRole(ADMIN.name())
                     .requestMatchers(POST, REST_PATH).permitAll()
                     .requestMatchers(POST, "/graphql").permitAll()
                     .requestMatchers(GET, "/v3/api-docs.yaml").permitAll()
@@ -94,7 +105,7 @@ interface SecurityConfig {
 
                     .anyRequest().authenticated();
             })
-            .httpBasic(withDefaults())
+            .httpBasic(basic -> basic.authenticationEntryPoint(new PasswordHashingBusyEntryPoint()))
             .formLogin(AbstractHttpConfigurer::disable)
             .csrf(AbstractHttpConfigurer::disable)
             .headers(headers -> headers.frameOptions(FrameOptionsConfig::sameOrigin))
@@ -103,12 +114,15 @@ interface SecurityConfig {
 
     /**
      * Bean-Definition, um den Verschlüsselungsalgorithmus für Passwörter bereitzustellen.
-     * Es wird Argon2id statt bcrypt (Default-Algorithmus von Spring Security) verwendet.
+     * Es wird Argon2id statt bcrypt (Default-Algorithmus von Spring Security) verwendet. Argon2 wird in einem
+     * begrenzten Thread-Pool ausgeführt, damit viele gleichzeitige Logins die CPU nicht überlasten.
      *
+     * @param props Konfiguration für den Thread-Pool
+     * @param meterRegistry Registry für die Metriken des Thread-Pools
      * @return Objekt für die Verschlüsselung von Passwörtern.
      */
     @Bean
-    default PasswordEncoder passwordEncoder() {
+    default PasswordEncoder passwordEncoder(final PasswordHashingProps props, final MeterRegistry meterRegistry) {
         // https://docs.spring.io/spring-security/reference/features/authentication/password-storage.html
         // https://github.com/OWASP/CheatSheetSeries/blob/master/cheatsheets/Password_Storage_Cheat_Sheet.md
         // https://www.rfc-editor.org/rfc/rfc9106.html
@@ -123,6 +137,12 @@ interface SecurityConfig {
                 ITERATIONS
             )
         );
-        return new DelegatingPasswordEncoder(idForEncode, encoders);
+        return new BoundedPasswordEncoder(
+            new DelegatingPasswordEncoder(idForEncode, encoders),
+            props.threads(),
+            props.queueCapacity(),
+            props.retryAfter(),
+            meterRegistry
+        );
     }
 }
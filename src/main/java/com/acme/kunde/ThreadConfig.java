@@ -16,6 +16,8 @@
  */
 package com.acme.kunde;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.core.task.AsyncTaskExecutor;
@@ -49,4 +51,25 @@ interface ThreadConfig {
     default TomcatProtocolHandlerCustomizer<?> protocolHandlerVirtualThreadExecutorCustomizer() {
         return protocolHandler -> protocolHandler.setExecutor(newVirtualThreadPerTaskExecutor());
     }
+
+    /**
+     * Bean-Definition für den Servlet-Filter, der die Anzahl gleichzeitiger Requests adaptiv begrenzt, weil die
+     * Virtual Threads von Tomcat selbst unbegrenzt sind.
+     *
+     * @param props Die Properties "app.concurrency-limit.*"
+     * @param meterRegistry MeterRegistry von Micrometer für die Metriken der Limits
+     * @return Objekt von ConcurrencyLimitFilter
+     */
+    @Bean
+    @ConditionalOnProperty(
+        prefix = "app.concurrency-limit",
+        name = "enabled",
+        havingValue = "true"
+    )
+    default ConcurrencyLimitFilter concurrencyLimitFilter(
+        final ConcurrencyLimitProps props,
+        final MeterRegistry meterRegistry
+    ) {
+        return new ConcurrencyLimitFilter(props, meterRegistry);
+    }
 }
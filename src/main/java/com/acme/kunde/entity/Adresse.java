@@ -17,8 +17,8 @@
 package com.acme.kunde.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
@@ -33,7 +33,10 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import static com.acme.kunde.entity.Adresse.CACHE_REGION;
 import static jakarta.persistence.FetchType.LAZY;
+import static org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE;
 
 /**
  * Adressdaten für die Anwendungslogik und zum Abspeichern in der DB.
@@ -42,6 +45,8 @@ import static jakarta.persistence.FetchType.LAZY;
  */
 @Entity
 @Table(name = "adresse")
+@Cacheable
+@Cache(usage = READ_WRITE, region = CACHE_REGION)
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -55,8 +60,13 @@ public class Adresse {
      */
     public static final String PLZ_PATTERN = "^\\d{5}$";
 
+    /**
+     * Region im 2nd Level Cache für Adressen.
+     */
+    public static final String CACHE_REGION = "adresse";
+
     @Id
-    @GeneratedValue
+    @UuidV7
     // Oracle: https://in.relation.to/2022/05/12/orm-uuid-mapping
     // @org.hibernate.annotations.JdbcTypeCode(org.hibernate.type.SqlTypes.CHAR)
     @JsonIgnore
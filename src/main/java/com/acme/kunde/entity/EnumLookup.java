@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.entity;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import static java.util.Locale.ROOT;
+
+/**
+ * Lookup-Tabelle für die Konvertierung eines Strings in einen Enum-Wert ohne Berücksichtigung von Groß- und
+ * Kleinschreibung. Schlüssel ist der interne Wert in Großschreibung; die Optional-Objekte werden vorab erzeugt.
+ *
+ * @param <E> Der Enum-Typ
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+final class EnumLookup<E extends Enum<E>> {
+    private final Map<String, Optional<E>> lookup;
+
+    EnumLookup(final E[] values, final Function<E, String> value) {
+        lookup = Map.copyOf(Stream.of(values).collect(Collectors.toMap(
+            enumValue -> value.apply(enumValue).toUpperCase(ROOT),
+            Optional::of
+        )));
+    }
+
+    /**
+     * Den Enum-Wert zu einem String ermitteln.
+     *
+     * @param value Der String oder null.
+     * @return Passender Enum-Wert oder ein leeres Optional.
+     */
+    Optional<E> of(final String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        // toUpperCase() liefert bei einem String in Grossschreibung denselben String, d.h. ohne Allokation
+        return lookup.getOrDefault(value.toUpperCase(ROOT), Optional.empty());
+    }
+}
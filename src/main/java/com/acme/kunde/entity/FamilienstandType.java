@@ -18,7 +18,6 @@ package com.acme.kunde.entity;
 
 import com.fasterxml.jackson.annotation.JsonValue;
 import java.util.Optional;
-import java.util.stream.Stream;
 
 /**
  * Enum für Familienstand. Dazu kann auf der Clientseite z.B. ein Dropdown-Menü realisiert werden.
@@ -49,6 +48,9 @@ public enum FamilienstandType {
     */
     VERWITWET("VW");
 
+    private static final EnumLookup<FamilienstandType> LOOKUP =
+        new EnumLookup<>(values(), familienstand -> familienstand.value);
+
     private final String value;
 
     FamilienstandType(final String value) {
@@ -59,12 +61,10 @@ public enum FamilienstandType {
      * Konvertierung eines Strings in einen Enum-Wert.
      *
      * @param value Der String, zu dem ein passender Enum-Wert ermittelt werden soll.
-     * @return Passender Enum-Wert oder null.
+     * @return Passender Enum-Wert oder ein leeres Optional.
      */
     public static Optional<FamilienstandType> of(final String value) {
-        return Stream.of(values())
-            .filter(familienstand -> familienstand.value.equalsIgnoreCase(value))
-            .findFirst();
+        return LOOKUP.of(value);
     }
 
     /**
@@ -18,7 +18,6 @@ package com.acme.kunde.entity;
 
 import com.fasterxml.jackson.annotation.JsonValue;
 import java.util.Optional;
-import java.util.stream.Stream;
 
 /**
  * Enum für Geschlecht. Dazu können auf der Clientseite z.B. Radiobuttons realisiert werden.
@@ -43,6 +42,8 @@ public enum GeschlechtType {
      */
     DIVERS("D");
 
+    private static final EnumLookup<GeschlechtType> LOOKUP = new EnumLookup<>(values(), geschlecht -> geschlecht.value);
+
     private final String value;
 
     GeschlechtType(final String value) {
@@ -66,11 +67,9 @@ public enum GeschlechtType {
      * Konvertierung eines Strings in einen Enum-Wert.
      *
      * @param value Der String, zu dem ein passender Enum-Wert ermittelt werden soll.
-     * @return Passender Enum-Wert oder null.
+     * @return Passender Enum-Wert oder ein leeres Optional.
      */
     public static Optional<GeschlechtType> of(final String value) {
-        return Stream.of(values())
-            .filter(geschlecht -> geschlecht.value.equalsIgnoreCase(value))
-            .findFirst();
+        return LOOKUP.of(value);
     }
 }
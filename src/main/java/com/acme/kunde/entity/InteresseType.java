@@ -17,6 +17,8 @@
 package com.acme.kunde.entity;
 
 import com.fasterxml.jackson.annotation.JsonValue;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -29,33 +31,84 @@ public enum InteresseType {
     /**
      * Sport mit dem internen Wert S für z.B. das Mapping in einem JSON-Datensatz oder das Abspeichern in einer DB.
      */
-    SPORT("S"),
+    SPORT("S", 0b001),
     /**
     * Lesen mit dem internen Wert L für z.B. das Mapping in einem JSON-Datensatz oder das Abspeichern in einer DB.
     */
-    LESEN("L"),
+    LESEN("L", 0b010),
 
     /**
     * Reisen mit dem internen Wert R für z.B. das Mapping in einem JSON-Datensatz oder das Abspeichern in einer DB.
     */
-    REISEN("R");
+    REISEN("R", 0b100);
+
+    private static final EnumLookup<InteresseType> LOOKUP = new EnumLookup<>(values(), interesse -> interesse.value);
+
+    /**
+     * Bitmaske mit allen Interessen.
+     */
+    public static final int ALLE_BITS = Stream.of(values()).mapToInt(InteresseType::getBit).reduce(0, (a, b) -> a | b);
 
     private final String value;
 
-    InteresseType(final String value) {
+    // Bit in der DB-Spalte "interessen_bits": der Wert darf sich nicht aendern, weil er persistent gespeichert ist
+    private final int bit;
+
+    InteresseType(final String value, final int bit) {
         this.value = value;
+        this.bit = bit;
+    }
+
+    /**
+     * Das Bit des Interesses in der Bitmaske, mit der die Interessen in der DB abgespeichert werden.
+     *
+     * @return Das Bit als int-Wert, z.B. 0b010.
+     */
+    public int getBit() {
+        return bit;
+    }
+
+    /**
+     * Konvertierung von Interessen in eine Bitmaske.
+     *
+     * @param interessen Die Interessen oder null.
+     * @return Die Bitmaske, z.B. 0b011 für SPORT und LESEN, bzw. 0 für keine Interessen.
+     */
+    public static int toBits(final Collection<InteresseType> interessen) {
+        if (interessen == null) {
+            return 0;
+        }
+        var bits = 0;
+        for (final var interesse : interessen) {
+            bits |= interesse.bit;
+        }
+        return bits;
+    }
+
+    /**
+     * Konvertierung einer Bitmaske in die Menge der Interessen.
+     *
+     * @param bits Die Bitmaske, z.B. 0b011.
+     * @return Die Interessen als EnumSet, z.B. SPORT und LESEN.
+     */
+    public static EnumSet<InteresseType> fromBits(final int bits) {
+        final var interessen = EnumSet.noneOf(InteresseType.class);
+        for (final var interesse : values()) {
+            if ((bits & interesse.bit) != 0) {
+                interessen.add(interesse);
+            }
+        }
+        return interessen;
     }
 
     /**
      * Konvertierung eines Strings in einen Enum-Wert.
      *
      * @param value Der String, zu dem ein passender Enum-Wert ermittelt werden soll.
-     * @return Passender Enum-Wert oder null.
+     * @return Passender Enum-Wert oder ein leeres Optional.
      */
     public static Optional<InteresseType> of(final String value) {
-        return Stream.of(values())
-            .filter(interesse -> interesse.value.equalsIgnoreCase(value))
-            .findFirst();
+        return LOOKUP.of(value);
     }
 
     /**
@@ -16,10 +16,10 @@
  */
 package com.acme.kunde.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.NamedAttributeNode;
 import jakarta.persistence.NamedEntityGraph;
@@ -42,10 +42,9 @@ import jakarta.validation.constraints.Size;
 import java.net.URL;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -53,16 +52,22 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.validator.constraints.UniqueElements;
 import static com.acme.kunde.entity.Kunde.ADRESSE_GRAPH;
 import static com.acme.kunde.entity.Kunde.ADRESSE_UMSAETZE_GRAPH;
+import static com.acme.kunde.entity.Kunde.CACHE_REGION;
+import static com.acme.kunde.entity.Kunde.EMAIL_CACHE_REGION;
 import static jakarta.persistence.CascadeType.PERSIST;
 import static jakarta.persistence.CascadeType.REMOVE;
 import static jakarta.persistence.EnumType.STRING;
 import static jakarta.persistence.FetchType.LAZY;
 import static java.util.Collections.emptyList;
+import static org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE;
 
 /**
  * Daten eines Kunden. In DDD ist Kunde ist ein Aggregate Root.
@@ -73,6 +78,9 @@ import static java.util.Collections.emptyList;
 // https://thorben-janssen.com/java-records-hibernate-jpa
 @Entity
 @Table(name = "kunde")
+@Cacheable
+@Cache(usage = READ_WRITE, region = CACHE_REGION)
+@NaturalIdCache(region = EMAIL_CACHE_REGION)
 @NamedEntityGraph(name = ADRESSE_GRAPH, attributeNodes = @NamedAttributeNode("adresse"))
 @NamedEntityGraph(name = ADRESSE_UMSAETZE_GRAPH, attributeNodes = {
     @NamedAttributeNode("adresse"), @NamedAttributeNode("umsaetze")
@@ -103,6 +111,16 @@ public class Kunde {
      */
     public static final String ADRESSE_UMSAETZE_GRAPH = "Kunde.adresseUmsaetze";
 
+    /**
+     * Region im 2nd Level Cache für Kunden.
+     */
+    public static final String CACHE_REGION = "kunde";
+
+    /**
+     * Region im 2nd Level Cache für die Zuordnung der Emailadresse als Natural ID zur ID.
+     */
+    public static final String EMAIL_CACHE_REGION = "kunde-email";
+
     /**
      * Muster für einen gültigen Nachnamen.
      */
@@ -131,7 +149,7 @@ public class Kunde {
     // https://docs.jboss.org/hibernate/orm/current/userguide/html_single/Hibernate_User_Guide.html...
     // ...#identifiers-generators-uuid
     // https://in.relation.to/2022/05/12/orm-uuid-mapping
-    @GeneratedValue
+    @UuidV7
     // Oracle: https://in.relation.to/2022/05/12/orm-uuid-mapping
     // @org.hibernate.annotations.JdbcTypeCode(org.hibernate.type.SqlTypes.CHAR)
     @EqualsAndHashCode.Include
@@ -163,6 +181,7 @@ public class Kunde {
     @Email
     @NotNull
     @Size(max = 40)
+    @NaturalId(mutable = true)
     private String email;
 
     /**
@@ -248,8 +267,10 @@ public class Kunde {
     @UniqueElements
     private List<InteresseType> interessen;
 
-    @Column(name = "interessen")
-    private String interessenStr;
+    // Interessen als Bitmaske, z.B. 0b011 fuer SPORT und LESEN: siehe InteresseType.getBit()
+    // Die Suche nach Interessen wird dadurch zu "interessen_bits IN (...)" mit billigen Integer-Vergleichen statt LIKE
+    @Column(name = "interessen_bits")
+    private int interessenBits;
 
     @Size(max = 20)
     private String username;
@@ -280,29 +301,29 @@ public class Kunde {
         familienstand = kunde.familienstand;
     }
 
+    /**
+     * Die Interessen setzen und dabei die Bitmaske für die DB-Spalte aktualisieren.
+     *
+     * @param interessen Die neuen Interessen.
+     */
+    public void setInteressen(final List<InteresseType> interessen) {
+        this.interessen = interessen;
+        interessenBits = InteresseType.toBits(interessen);
+    }
+
     @PrePersist
-    private void buildInteressenStr() {
-        if (interessen == null || interessen.isEmpty()) {
-            // NULL in der DB-Spalte
-            interessenStr = null;
-            return;
-        }
-        final var stringList = interessen.stream()
-            .map(Enum::name)
-            .toList();
-        interessenStr = String.join(",", stringList);
+    void buildInteressenBits() {
+        // z.B. beim Builder wird setInteressen() nicht aufgerufen
+        interessenBits = InteresseType.toBits(interessen);
     }
 
     @PostLoad
-    private void loadInteressen() {
-        if (interessenStr == null) {
-            // NULL in der DB-Spalte
+    void loadInteressen() {
+        if (interessenBits == 0) {
+            // keine Interessen
             interessen = emptyList();
             return;
         }
-        final var interessenArray = interessenStr.split(",");
-        interessen = Arrays.stream(interessenArray)
-            .map(InteresseType::valueOf)
-            .collect(Collectors.toList());
+        interessen = new ArrayList<>(InteresseType.fromBits(interessenBits));
     }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+
+/**
+ * Noch nicht versendete Email über einen neuen Kunden, die in derselben Transaktion wie der Kunde gespeichert und
+ * asynchron versendet wird.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Entity
+@Table(name = "mail_outbox")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+@Builder
+@SuppressWarnings({"JavadocDeclaration", "RequireEmptyLineBeforeBlockTagGroup", "MissingSummary"})
+public class MailOutbox {
+    @Id
+    @UuidV7
+    @Column(updatable = false)
+    private UUID id;
+
+    /**
+     * Die ID des neuen Kunden.
+     * @param kundeId Die ID des neuen Kunden.
+     * @return Die ID des neuen Kunden.
+     */
+    @Column(updatable = false)
+    private UUID kundeId;
+
+    /**
+     * Der Nachname des neuen Kunden.
+     * @param nachname Der Nachname des neuen Kunden.
+     * @return Der Nachname des neuen Kunden.
+     */
+    @Column(updatable = false)
+    private String nachname;
+
+    /**
+     * Die Anzahl der fehlgeschlagenen Versuche.
+     * @param versuche Die Anzahl der fehlgeschlagenen Versuche.
+     * @return Die Anzahl der fehlgeschlagenen Versuche.
+     */
+    private int versuche;
+
+    /**
+     * Flag, ob die Email nach der maximalen Anzahl an Versuchen nicht mehr versendet wird.
+     * @param fehlgeschlagen true, falls die Email nicht mehr versendet wird.
+     * @return true, falls die Email nicht mehr versendet wird.
+     */
+    private boolean fehlgeschlagen;
+
+    /**
+     * Der Zeitpunkt, ab dem die Email (erneut) versendet werden kann.
+     * @param naechsterVersuch Der Zeitpunkt für den nächsten Versuch.
+     * @return Der Zeitpunkt für den nächsten Versuch.
+     */
+    private LocalDateTime naechsterVersuch;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime erzeugt;
+}
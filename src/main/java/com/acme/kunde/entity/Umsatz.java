@@ -18,7 +18,6 @@ package com.acme.kunde.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -50,7 +49,7 @@ import static jakarta.persistence.FetchType.LAZY;
 @SuppressWarnings({"JavadocDeclaration", "RequireEmptyLineBeforeBlockTagGroup", "MissingSummary"})
 public class Umsatz {
     @Id
-    @GeneratedValue
+    @UuidV7
     // Oracle: https://in.relation.to/2022/05/12/orm-uuid-mapping
     // @org.hibernate.annotations.JdbcTypeCode(org.hibernate.type.SqlTypes.CHAR)
     @jakarta.persistence.Column(updatable = false)
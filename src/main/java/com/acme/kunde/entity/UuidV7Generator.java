@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.entity;
+
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import static org.hibernate.generator.EventTypeSets.INSERT_ONLY;
+
+/**
+ * Generator für UUIDs der Version 7 gemäß
+ * <a href="https://www.rfc-editor.org/rfc/rfc9562#name-uuid-version-7">RFC 9562</a>: 48 Bit Zeitstempel in
+ * Millisekunden, 12 Bit Zähler innerhalb derselben Millisekunde und 62 Bit Zufall. Die generierten UUIDs sind innerhalb
+ * der JVM streng monoton steigend.
+ * <p>
+ * Zeitstempel und Zähler werden gemeinsam in einem <code>AtomicLong</code> per Compare-and-Swap fortgeschrieben. Der
+ * Zufall stammt von <code>ThreadLocalRandom</code>. Läuft der Zähler innerhalb einer Millisekunde über, wird der
+ * Zeitstempel der nächsten Millisekunde verwendet.
+ * </p>
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+    private static final int COUNTER_BITS = 12;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final long RANDOM_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    // Zeitstempel in Millisekunden und Zaehler der zuletzt generierten UUID, gemeinsam fuer alle Entity-Klassen
+    private static final AtomicLong LAST = new AtomicLong();
+
+    @Override
+    public Object generate(
+        final SharedSessionContractImplementor session,
+        final Object owner,
+        final Object currentValue,
+        final EventType eventType
+    ) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return INSERT_ONLY;
+    }
+
+    /**
+     * Eine neue UUID der Version 7 generieren.
+     *
+     * @return Die neue UUID
+     */
+    public static UUID next() {
+        final var now = System.currentTimeMillis() << COUNTER_BITS;
+        final var timestampCounter = LAST.updateAndGet(last -> Math.max(now, last + 1));
+        final var timestamp = timestampCounter >>> COUNTER_BITS;
+        final var counter = timestampCounter & ((1L << COUNTER_BITS) - 1);
+
+        final var mostSigBits = timestamp << 16 | VERSION | counter;
+        final var leastSigBits = VARIANT | ThreadLocalRandom.current().nextLong() & RANDOM_MASK;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
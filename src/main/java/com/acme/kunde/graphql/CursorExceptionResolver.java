@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.graphql;
+
+import com.acme.kunde.service.InvalidCursorException;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.schema.DataFetchingEnvironment;
+import org.springframework.graphql.execution.DataFetcherExceptionResolverAdapter;
+import org.springframework.stereotype.Component;
+import static org.springframework.graphql.execution.ErrorType.BAD_REQUEST;
+
+/**
+ * Abbildung von InvalidCursorException auf GraphQLError. Ein ungültiger Cursor wird bereits beim Auflösen der Argumente
+ * `after` und `before` erkannt. Ein Fehler aus einer Methode mit `@GraphQlExceptionHandler` könnte danach nicht in eine
+ * Connection konvertiert werden, deshalb erfolgt die Abbildung erst nach der Konvertierung.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+final class CursorExceptionResolver extends DataFetcherExceptionResolverAdapter {
+    @Override
+    protected GraphQLError resolveToSingleError(final Throwable ex, final DataFetchingEnvironment env) {
+        if (!(ex instanceof final InvalidCursorException cursorEx)) {
+            return null;
+        }
+        return GraphqlErrorBuilder.newError(env)
+            .errorType(BAD_REQUEST)
+            .message("Ungueltiger Cursor: " + cursorEx.getCursor())
+            .build();
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.graphql;
+
+import com.acme.kunde.service.KundeCursor;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.context.annotation.Primary;
+import org.springframework.graphql.data.pagination.CursorStrategy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cursor für GraphQL-Connections mit denselben Keyset-Positionen wie bei der REST-Schnittstelle, damit die ID als UUID
+ * erhalten bleibt. Die Strategie ersetzt die voreingestellte Strategie von Spring Boot mit einem JSON-artigen Cursor.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+@Primary
+final class KundeCursorStrategy implements CursorStrategy<ScrollPosition> {
+    @Override
+    public boolean supports(final Class<?> targetType) {
+        return ScrollPosition.class.isAssignableFrom(targetType);
+    }
+
+    @Override
+    public String toCursor(final ScrollPosition position) {
+        return KundeCursor.toCursor(position);
+    }
+
+    @Override
+    public ScrollPosition fromCursor(final String cursor) {
+        return KundeCursor.fromCursor(cursor);
+    }
+}
@@ -17,18 +17,24 @@
 package com.acme.kunde.graphql;
 
 import com.acme.kunde.entity.Kunde;
+import com.acme.kunde.repository.DuplicateKeys;
 import com.acme.kunde.security.UsernameExistsException;
 import com.acme.kunde.service.ConstraintViolationsException;
+import com.acme.kunde.service.BulkCreateResult;
 import com.acme.kunde.service.EmailExistsException;
 import com.acme.kunde.service.KundeWriteService;
+import com.acme.kunde.service.NeuerKunde;
+import com.acme.kunde.service.TooManyKundenException;
 import graphql.GraphQLError;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Path;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.GraphQlExceptionHandler;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 
 import java.time.format.DateTimeParseException;
@@ -38,6 +44,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import static org.springframework.graphql.execution.ErrorType.BAD_REQUEST;
+import static org.springframework.graphql.execution.ErrorType.INTERNAL_ERROR;
 
 /**
  * Eine Controller-Klasse für das Schreiben mit der GraphQL-Schnittstelle und den Typen aus dem GraphQL-Schema.
@@ -66,6 +73,22 @@ class KundeMutationController {
         return new CreatePayload(id);
     }
 
+    /**
+     * Viele neue Kunden in einem einzigen Request anlegen.
+     *
+     * @param input Die Eingabedaten für die neuen Kunden
+     * @return Das Ergebnis für jeden einzelnen Kunden mit der generierten ID oder mit der Fehlermeldung
+     */
+    @MutationMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    Collection<BulkCreateResult> createAll(@Argument final List<KundeInput> input) {
+        log.debug("createAll: {} Kunden", input.size());
+        final var neueKunden = input.stream()
+            .map(kundeInput -> new NeuerKunde(kundeInput.toKunde(), kundeInput.toUserDetails()))
+            .toList();
+        return service.createAll(neueKunden);
+    }
+
     @GraphQlExceptionHandler
     GraphQLError onEmailExists(final EmailExistsException ex) {
         final List<Object> path = List.of("input", "email");
@@ -86,6 +109,36 @@ class KundeMutationController {
             .build();
     }
 
+    @GraphQlExceptionHandler
+    GraphQLError onTooManyKunden(final TooManyKundenException ex) {
+        final List<Object> path = List.of("input");
+        return GraphQLError.newError()
+            .errorType(BAD_REQUEST)
+            .message(ex.getMessage())
+            .path(path)
+            .build();
+    }
+
+    // Unique-Constraint in der DB, z.B. bei nebenlaeufigem Neuanlegen mit derselben Emailadresse
+    @GraphQlExceptionHandler
+    GraphQLError onDataIntegrityViolation(final DataIntegrityViolationException ex) {
+        final List<Object> path = List.of("input");
+        if (!DuplicateKeys.isEmailOrUsername(ex)) {
+            // z.B. Foreign Key, NOT NULL oder CHECK: kein fachlicher Fehler des Clients
+            log.error("onDataIntegrityViolation", ex);
+            return GraphQLError.newError()
+                .errorType(INTERNAL_ERROR)
+                .message("Der Kunde konnte nicht gespeichert werden.")
+                .path(path)
+                .build();
+        }
+        return GraphQLError.newError()
+            .errorType(BAD_REQUEST)
+            .message("Die Emailadresse oder der Username existiert bereits.")
+            .path(path)
+            .build();
+    }
+
     @GraphQlExceptionHandler
     GraphQLError onDateTimeParseException(final DateTimeParseException ex) {
         final List<Object> path = List.of("input", "geburtsdatum");
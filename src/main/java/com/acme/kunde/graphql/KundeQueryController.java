@@ -17,18 +17,29 @@
 package com.acme.kunde.graphql;
 
 import com.acme.kunde.entity.Kunde;
+import com.acme.kunde.entity.Umsatz;
+import com.acme.kunde.repository.KundeProjektion;
 import com.acme.kunde.service.KundeReadService;
+import com.acme.kunde.service.NotFoundException;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.query.ScrollSubrange;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 
 /**
@@ -60,18 +71,76 @@ class KundeQueryController {
     }
 
     /**
-     * Suche mit diversen Suchkriterien.
+     * Suche mit diversen Suchkriterien. Es werden nur die Spalten gelesen, die in der Query als Felder angefordert
+     * werden, und die Tabelle "adresse" wird nur bei angeforderten Feldern der Adresse gejoint.
      *
      * @param input Suchkriterien und ihre Werte, z.B. `nachname` und `Alpha`
-     * @return Die gefundenen Kunden als Collection
+     * @param selectionSet Die angeforderten Felder
+     * @return Die gefundenen Kunden als Projektion auf die angeforderten Felder
      */
     @QueryMapping
     @PreAuthorize("hasRole('ADMIN')")
-    Collection<Kunde> kunden(@Argument final Optional<Suchkriterien> input) {
+    Collection<KundeProjektion> kunden(
+        @Argument final Optional<Suchkriterien> input,
+        final DataFetchingFieldSelectionSet selectionSet
+    ) {
         log.debug("kunden: input={}", input);
         final var suchkriterien = input.map(Suchkriterien::toMap).orElse(emptyMap());
-        final var kunden = service.find(suchkriterien);
+        final var attribute = selectionSet.getFields()
+            .stream()
+            .map(SelectedField::getQualifiedName)
+            .map(name -> name.replace('/', '.'))
+            .toList();
+        final var kunden = service.findProjektionen(suchkriterien, attribute);
         log.debug("kunden: {}", kunden);
         return kunden;
     }
+
+    /**
+     * Seitenweise Suche mit diversen Suchkriterien gemäß der Cursor-Spezifikation für Connections.
+     *
+     * @param input Suchkriterien und ihre Werte, z.B. `nachname` und `Alpha`
+     * @param subrange Keyset-Position und Anzahl aus den Argumenten `first`, `after`, `last` und `before`
+     * @return Die gefundenen Kunden der Seite, aus denen eine `KundeConnection` wird, ggf. ohne Kunden
+     */
+    @QueryMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    Window<Kunde> kundenConnection(@Argument final Optional<Suchkriterien> input, final ScrollSubrange subrange) {
+        log.debug("kundenConnection: input={}, subrange={}", input, subrange);
+        final var suchkriterien = input.map(Suchkriterien::toMap).orElse(emptyMap());
+        final var position = subrange.position().orElse(ScrollPosition.keyset());
+        final Window<Kunde> kunden;
+        try {
+            kunden = service.find(suchkriterien, position, subrange.count().orElse(0));
+        } catch (final NotFoundException ex) {
+            // leere Connection statt eines Fehlers, der nicht in eine Connection konvertiert werden kann
+            return Window.from(emptyList(), index -> position);
+        }
+        log.debug("kundenConnection: size={}, hasNext={}", kunden.size(), kunden.hasNext());
+        return kunden;
+    }
+
+    /**
+     * Die Umsätze zu allen Kunden eines Requests mit einer einzigen Query laden, d.h. über einen DataLoader statt
+     * einzeln pro Kunde. Die Query wird nur ausgeführt, wenn das Feld `umsaetze` angefordert wird.
+     *
+     * @param kunden Die Kunden als Entity-Objekte oder Projektionen, zu denen die Umsätze geladen werden
+     * @return Die Umsätze in derselben Reihenfolge wie die Kunden
+     */
+    @BatchMapping(typeName = "Kunde")
+    List<List<Umsatz>> umsaetze(final List<Object> kunden) {
+        log.debug("umsaetze: anzahl={}", kunden.size());
+        final var ids = kunden.stream()
+            .map(KundeQueryController::getId)
+            .toList();
+        final var umsaetze = service.findUmsaetzeByKundeIds(ids);
+        return ids.stream()
+            .map(id -> umsaetze.getOrDefault(id, List.of()))
+            .toList();
+    }
+
+    // "kunde" und "kundenConnection" liefern Entity-Objekte, "kunden" liefert Projektionen
+    private static UUID getId(final Object kunde) {
+        return kunde instanceof final KundeProjektion projektion ? projektion.id() : ((Kunde) kunde).getId();
+    }
 }
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.jfr;
+
+import com.acme.kunde.JfrProps;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ständige Aufzeichnung mit JFR als Ringpuffer mit maximalem Alter und maximaler Größe. Zusätzlich zur
+ * JFR-Konfiguration "default" werden Events zu Allokationen, Locks, Thread-Parking und Sockets mit eigenen
+ * Schwellwerten sowie {@linkplain MethodCallEvent} aufgezeichnet. Das JDK hat keine eigenen Events für JDBC,
+ * d.h. DB-Zugriffe sind als Socket-Events und als Methodenaufrufe der Anwendungslogik enthalten.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.jfr", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+class ContinuousRecording {
+    private static final String NAME = "kunde-continuous";
+    private static final String FILE_PREFIX = "kunde-";
+    private static final String FILE_SUFFIX = ".jfr";
+
+    private final JfrProps props;
+    private Recording recording;
+
+    /**
+     * Die Aufzeichnung beim Start der Anwendung starten.
+     *
+     * @throws IOException Falls die JFR-Konfiguration nicht gelesen werden kann
+     * @throws ParseException Falls die JFR-Konfiguration fehlerhaft ist
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void start() throws IOException, ParseException {
+        final var threshold = props.threshold();
+        recording = new Recording(Configuration.getConfiguration(props.settings()));
+        recording.setName(NAME);
+        recording.setToDisk(true);
+        recording.setMaxAge(props.maxAge());
+        recording.setMaxSize(props.maxSize().toBytes());
+        recording.enable("jdk.ObjectAllocationSample").with("throttle", props.allocationThrottle()).withStackTrace();
+        recording.enable("jdk.JavaMonitorEnter").withThreshold(threshold).withStackTrace();
+        recording.enable("jdk.JavaMonitorWait").withThreshold(threshold).withStackTrace();
+        recording.enable("jdk.ThreadPark").withThreshold(threshold).withStackTrace();
+        recording.enable("jdk.SocketRead").withThreshold(threshold).withStackTrace();
+        recording.enable("jdk.SocketWrite").withThreshold(threshold).withStackTrace();
+        recording.enable(MethodCallEvent.class);
+        recording.start();
+        log.info("start: settings={}, maxAge={}, maxSize={}", props.settings(), props.maxAge(), props.maxSize());
+    }
+
+    /**
+     * Die Aufzeichnung beim Herunterfahren der Anwendung beenden.
+     */
+    @PreDestroy
+    void stop() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    /**
+     * Die Events der letzten Zeitspanne aus allen laufenden Aufzeichnungen in eine temporäre Datei schreiben.
+     *
+     * @param age Die Zeitspanne, höchstens "app.jfr.max-age"
+     * @return Die temporäre Datei
+     * @throws IOException Falls die Datei nicht geschrieben werden kann
+     */
+    Path dump(final Duration age) throws IOException {
+        final var maxAge = age.compareTo(props.maxAge()) > 0 ? props.maxAge() : age;
+        final var file = Files.createTempFile(FILE_PREFIX, FILE_SUFFIX);
+        try (var snapshot = FlightRecorder.getFlightRecorder().takeSnapshot()) {
+            snapshot.setMaxAge(maxAge);
+            snapshot.dump(file);
+        } catch (final IOException | RuntimeException ex) {
+            Files.deleteIfExists(file);
+            throw ex;
+        }
+        log.debug("dump: maxAge={}, file={}, size={}", maxAge, file, Files.size(file));
+        return file;
+    }
+
+    /**
+     * Die Zeitspanne für einen Dump ohne Angabe von Minuten.
+     *
+     * @return Die Zeitspanne "app.jfr.dump-age"
+     */
+    Duration getDumpAge() {
+        return props.dumpAge();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.jfr;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator-Endpoint "/actuator/jfr": GET liefert die JFR-Events der letzten Minuten als Datei, die z.B. mit JDK
+ * Mission Control oder mit {@code jfr print --events com.acme.kunde.MethodCall} ausgewertet werden kann, z.B.
+ * {@code /actuator/jfr?minutes=10}. Der Zugriff ist in SecurityConfig auf ADMIN und ACTUATOR beschränkt, weil die
+ * Events u.a. System Properties enthalten.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.jfr", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Endpoint(id = "jfr")
+@RequiredArgsConstructor
+@Slf4j
+public class JfrEndpoint {
+    private final ContinuousRecording recording;
+
+    /**
+     * Die Events der letzten Minuten als Datei liefern.
+     *
+     * @param minutes Anzahl der Minuten oder null für "app.jfr.dump-age"
+     * @return Die Datei im JFR-Format, die nach dem Lesen gelöscht wird
+     * @throws IOException Falls die Datei nicht geschrieben werden kann
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public Resource dump(@Nullable final Integer minutes) throws IOException {
+        final var age = minutes == null || minutes <= 0 ? recording.getDumpAge() : Duration.ofMinutes(minutes);
+        log.debug("dump: age={}", age);
+        return new TemporaryFileResource(recording.dump(age));
+    }
+
+    /**
+     * Datei, die nach dem Lesen gelöscht wird.
+     */
+    private static final class TemporaryFileResource extends FileSystemResource {
+        TemporaryFileResource(final Path file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            final var file = getFile().toPath();
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.jfr;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import static com.acme.kunde.MethodTimer.CRITERION_TAG;
+import static com.acme.kunde.MethodTimer.NONE;
+
+/**
+ * JFR-Event für einen Methodenaufruf der Anwendungslogik, der durch {@linkplain com.acme.kunde.MethodTimer}
+ * gemessen wird, z.B. bei KundeReadService und KundeWriteService. Damit lassen sich Latenzspitzen in einem Dump
+ * einer Operation und einem Suchkriterium zuordnen.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Name(MethodCallEvent.NAME)
+@Label("Methodenaufruf")
+@Category({"Kunde", "Service"})
+@Description("Methodenaufruf der Anwendungslogik mit Operation und Suchkriterium")
+@StackTrace(false)
+@SuppressWarnings({"unused", "FieldCanBeLocal"})
+public final class MethodCallEvent extends Event {
+    /**
+     * Name des Events in JFR.
+     */
+    public static final String NAME = "com.acme.kunde.MethodCall";
+
+    @Label("Timer")
+    private String timer;
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Suchkriterium")
+    private String criterion;
+
+    @Label("Exception")
+    private String exception;
+
+    @Label("Ergebnis")
+    private String result;
+
+    /**
+     * Das Event beenden und aufzeichnen, falls es bei JFR aktiviert ist.
+     *
+     * @param timerName Name des Timers, z.B. "kunde.read"
+     * @param method Name der Methode
+     * @param tags Die Tags des Timers, ggf. mit dem Suchkriterium
+     * @param exceptionName Einfacher Klassenname der Exception oder "none"
+     * @param resultName "hit", "miss" oder "none"
+     */
+    public void finish(
+        final String timerName,
+        final String method,
+        final Tags tags,
+        final String exceptionName,
+        final String resultName
+    ) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        timer = timerName;
+        operation = method;
+        criterion = tags.stream()
+            .filter(tag -> CRITERION_TAG.equals(tag.getKey()))
+            .map(Tag::getValue)
+            .findFirst()
+            .orElse(NONE);
+        exception = exceptionName;
+        result = resultName;
+        commit();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.jfr;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator-Endpoint "/actuator/pinning": GET liefert den Report von {@linkplain PinningMonitor}, DELETE setzt ihn
+ * zurück, z.B. vor einem Lasttest, der bei zu vielen Events fehlschlagen soll.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.pinning", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Endpoint(id = "pinning")
+@RequiredArgsConstructor
+@Slf4j
+class PinningEndpoint {
+    private final PinningMonitor monitor;
+
+    /**
+     * Den Report über die Events seit dem Start bzw. dem letzten Zurücksetzen liefern.
+     *
+     * @return Der Report
+     */
+    @ReadOperation
+    public PinningReport report() {
+        return monitor.report();
+    }
+
+    /**
+     * Die gesammelten Events verwerfen.
+     */
+    @DeleteOperation
+    public void reset() {
+        log.debug("reset");
+        monitor.reset();
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.jfr;
+
+import com.acme.kunde.PinningProps;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Auswertung der JFR-Events "jdk.VirtualThreadPinned" und "jdk.VirtualThreadSubmitFailed" mit JFR Streaming. Die
+ * Events werden nach dem ersten Stack-Frame außerhalb des JDK gruppiert, z.B. im JDBC-Treiber, in Hibernate oder in
+ * Angus Mail, und zusätzlich durch die Counter "jvm.threads.virtual.pinned" mit dem Tag "frame" sowie
+ * "jvm.threads.virtual.submit.failed" gezählt.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.pinning", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+class PinningMonitor {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String SUBMIT_FAILED_EVENT = "jdk.VirtualThreadSubmitFailed";
+    private static final String METRICS_NAME = "jvm.threads.virtual";
+    private static final String OTHER = "other";
+    private static final List<String> JDK_PACKAGES = List.of("java.", "javax.", "jdk.", "sun.", "com.sun.");
+
+    private final PinningProps props;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, FrameStats> frames = new ConcurrentHashMap<>();
+    private final LongAdder pinned = new LongAdder();
+    private final LongAdder submitFailed = new LongAdder();
+    private RecordingStream stream;
+
+    /**
+     * Das JFR Streaming beim Start der Anwendung starten.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(props.threshold()).withStackTrace();
+        stream.enable(SUBMIT_FAILED_EVENT).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.onEvent(SUBMIT_FAILED_EVENT, this::onSubmitFailed);
+        stream.startAsync();
+        log.info("start: threshold={}", props.threshold());
+    }
+
+    /**
+     * Das JFR Streaming beim Herunterfahren der Anwendung beenden.
+     */
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    /**
+     * Die seit dem Start bzw. seit dem letzten Zurücksetzen gesammelten Events als Report, sortiert nach Anzahl.
+     *
+     * @return Der Report für den Actuator-Endpoint
+     */
+    PinningReport report() {
+        final var frameReports = frames.entrySet()
+            .stream()
+            .map(entry -> entry.getValue().toReport(entry.getKey()))
+            .sorted(Comparator.comparingLong(PinningReport.Frame::count).reversed())
+            .toList();
+        return new PinningReport(
+            pinned.sum(),
+            submitFailed.sum(),
+            props.threshold().toMillis(),
+            frameReports
+        );
+    }
+
+    /**
+     * Die gesammelten Events verwerfen, z.B. vor einem Lasttest. Die Counter bei Micrometer bleiben unverändert.
+     */
+    void reset() {
+        frames.clear();
+        pinned.reset();
+        submitFailed.reset();
+    }
+
+    private void onPinned(final RecordedEvent event) {
+        pinned.increment();
+        final var stackTrace = event.getStackTrace();
+        final var stack = stackTrace == null ? List.<RecordedFrame>of() : stackTrace.getFrames();
+        final var start = firstApplicationFrame(stack);
+        final var key = start < stack.size() ? format(stack.get(start)) : OTHER;
+        // Anzahl der Tags fuer Micrometer begrenzen
+        final var frameKey = frames.containsKey(key) || frames.size() < props.maxFrames() ? key : OTHER;
+        final var stats = frames.computeIfAbsent(frameKey, k -> new FrameStats(
+            stack.stream()
+                .skip(start)
+                .limit(props.stackDepth())
+                .map(PinningMonitor::format)
+                .toList(),
+            Counter.builder(METRICS_NAME + ".pinned")
+                .description("Virtual Threads, die beim Blockieren an ihren Carrier-Thread gebunden waren")
+                .tag("frame", k)
+                .register(meterRegistry)
+        ));
+        stats.add(event.getDuration().toNanos());
+        log.debug("onPinned: {} {}", frameKey, event.getDuration());
+    }
+
+    private void onSubmitFailed(final RecordedEvent event) {
+        submitFailed.increment();
+        meterRegistry.counter(METRICS_NAME + ".submit.failed").increment();
+        log.warn("onSubmitFailed: {}", event);
+    }
+
+    private static int firstApplicationFrame(final List<RecordedFrame> stack) {
+        for (var i = 0; i < stack.size(); i++) {
+            final var className = stack.get(i).getMethod().getType().getName();
+            if (JDK_PACKAGES.stream().noneMatch(className::startsWith)) {
+                return i;
+            }
+        }
+        return stack.size();
+    }
+
+    private static String format(final RecordedFrame frame) {
+        final var method = frame.getMethod();
+        return method.getType().getName() + '.' + method.getName() + ':' + frame.getLineNumber();
+    }
+
+    /**
+     * Anzahl und Dauer der Events zu einem Stack-Frame.
+     */
+    private static final class FrameStats {
+        private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+        private final List<String> stackTrace;
+        private final Counter counter;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        FrameStats(final List<String> stackTrace, final Counter counter) {
+            this.stackTrace = stackTrace;
+            this.counter = counter;
+        }
+
+        void add(final long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            counter.increment();
+        }
+
+        PinningReport.Frame toReport(final String frame) {
+            return new PinningReport.Frame(
+                frame,
+                count.sum(),
+                totalNanos.sum() / NANOS_PER_MILLI,
+                maxNanos.get() / NANOS_PER_MILLI,
+                stackTrace
+            );
+        }
+    }
+}
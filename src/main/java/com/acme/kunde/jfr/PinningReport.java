@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.jfr;
+
+import java.util.List;
+
+/**
+ * Report über Virtual Threads, die an ihren Carrier-Thread gebunden waren, für den Actuator-Endpoint "pinning".
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param pinned Anzahl der Events "jdk.VirtualThreadPinned"
+ * @param submitFailed Anzahl der Events "jdk.VirtualThreadSubmitFailed"
+ * @param thresholdMillis Mindestdauer in Millisekunden, ab der ein Pinning gemeldet wird
+ * @param frames Die Events gruppiert nach dem ersten Stack-Frame außerhalb des JDK
+ */
+record PinningReport(long pinned, long submitFailed, long thresholdMillis, List<Frame> frames) {
+    /**
+     * Anzahl und Dauer der Events zu einem Stack-Frame.
+     *
+     * @param frame Der erste Stack-Frame außerhalb des JDK
+     * @param count Anzahl der Events
+     * @param totalMillis Summe der Dauer in Millisekunden
+     * @param maxMillis Maximale Dauer in Millisekunden
+     * @param stackTrace Die Stack-Frames ab dem ersten Stack-Frame außerhalb des JDK
+     */
+    record Frame(String frame, long count, double totalMillis, double maxMillis, List<String> stackTrace) {
+    }
+}
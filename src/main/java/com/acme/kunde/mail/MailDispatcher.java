@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.mail;
+
+import com.acme.kunde.MailOutboxProps;
+import com.acme.kunde.repository.MailOutboxRepository;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Semaphore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Asynchrones Versenden der Emails aus der Outbox mit einem Virtual Thread. Die fälligen Emails werden in Batches
+ * gelesen und gesperrt, über jeweils eine SMTP-Verbindung versendet und danach gelöscht. Bei einem Fehler wird der
+ * nächste Versuch mit exponentiellem Backoff geplant, bis die maximale Anzahl an Versuchen erreicht ist und die Email
+ * als fehlgeschlagen markiert wird.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class MailDispatcher {
+    private final MailOutboxRepository repo;
+    private final Mailer mailer;
+    private final MailOutboxProps props;
+    private final AsyncTaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+
+    // Signal fuer neue Emails in der Outbox
+    private final Semaphore signal = new Semaphore(0);
+    private volatile boolean running;
+
+    /**
+     * Den Virtual Thread zum Versenden beim Start der Anwendung starten. Dabei werden auch Emails versendet, die vor
+     * einem Neustart nicht mehr versendet wurden.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        running = true;
+        executor.execute(this::run);
+        log.info("start: pollInterval={}", props.pollInterval());
+    }
+
+    /**
+     * Den Virtual Thread beim Herunterfahren der Anwendung beenden.
+     */
+    @PreDestroy
+    void stop() {
+        running = false;
+        signal.release();
+    }
+
+    /**
+     * Nach dem Commit einer Transaktion mit einer neuen Email den Virtual Thread aufwecken.
+     *
+     * @param event Event für die neue Email
+     */
+    @TransactionalEventListener
+    void onMailEnqueued(final MailEnqueuedEvent event) {
+        signal.release();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                // solange volle Batches gelesen werden, gibt es ggf. weitere faellige Emails
+                //noinspection StatementWithEmptyBody
+                while (running && dispatchBatch() == props.batchSize()) {
+                }
+            } catch (final RuntimeException e) {
+                log.error("run: Fehler beim Versenden der Emails aus der Outbox", e);
+            }
+
+            try {
+                //noinspection ResultOfMethodCallIgnored
+                signal.tryAcquire(props.pollInterval().toMillis(), MILLISECONDS);
+                signal.drainPermits();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Die Sperren der gelesenen Emails bleiben bis zum Commit nach dem Versenden erhalten
+    private int dispatchBatch() {
+        final var anzahl = transactionTemplate.execute(status -> {
+            final var jetzt = LocalDateTime.now();
+            final var mails = repo.findFaellige(jetzt, PageRequest.ofSize(props.batchSize()));
+            if (mails.isEmpty()) {
+                return 0;
+            }
+
+            final var failed = mailer.sendBatch(mails);
+            mails.forEach(mail -> {
+                final var ex = failed.get(mail);
+                if (ex == null) {
+                    repo.delete(mail);
+                    return;
+                }
+                final var versuche = mail.getVersuche() + 1;
+                mail.setVersuche(versuche);
+                if (versuche >= props.maxAttempts()) {
+                    mail.setFehlgeschlagen(true);
+                    log.error("dispatchBatch: Email fuer Kunde {} nach {} Versuchen endgueltig nicht versendet",
+                        mail.getKundeId(), versuche, ex);
+                    return;
+                }
+                final var backoff = backoff(versuche);
+                mail.setNaechsterVersuch(jetzt.plus(backoff));
+                log.warn("dispatchBatch: Email fuer Kunde {} nicht versendet, Versuch {}, naechster Versuch in {}: {}",
+                    mail.getKundeId(), versuche, backoff, ex.getMessage());
+            });
+            log.debug("dispatchBatch: {} Emails, davon {} nicht versendet", mails.size(), failed.size());
+            return mails.size();
+        });
+        return anzahl == null ? 0 : anzahl;
+    }
+
+    private Duration backoff(final int versuche) {
+        final var maxBackoff = props.maxBackoff();
+        // initialBackoff * 2^(versuche - 1), wobei der Exponent gegen einen Ueberlauf begrenzt ist
+        final var shift = Math.min(versuche - 1, Integer.SIZE - 2);
+        final var backoff = props.initialBackoff().multipliedBy(1L << shift);
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+}
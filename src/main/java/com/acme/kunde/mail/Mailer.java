@@ -17,20 +17,35 @@
 package com.acme.kunde.mail;
 
 import com.acme.kunde.MailProps;
+import com.acme.kunde.MethodTimer;
 import com.acme.kunde.entity.Kunde;
+import com.acme.kunde.entity.MailOutbox;
+import com.acme.kunde.repository.MailOutboxRepository;
+import io.micrometer.core.instrument.Tags;
+import jakarta.mail.MessagingException;
 import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Objects;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
 import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessagePreparator;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import static jakarta.mail.Message.RecipientType.TO;
+import static org.springframework.transaction.annotation.Propagation.MANDATORY;
 
 /**
- * Mail-Client.
+ * Mail-Client. Die Dauer der Methoden wird durch den Timer "kunde.mail" gemessen, bei sendBatch() einschließlich
+ * der SMTP-Verbindung.
  *
  * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
  */
@@ -39,36 +54,100 @@ import static jakarta.mail.Message.RecipientType.TO;
 @Slf4j
 @SuppressWarnings("ClassNamePrefixedWithPackageName")
 public class Mailer {
+    private static final String METRICS_NAME = "kunde.mail";
     private static final boolean SMTP_DEACTIVATED = Objects.equals(System.getenv("SMTP_DEACTIVATED"), "true") ||
         Objects.equals(System.getProperty("smtp-deactivated"), "true");
 
     private final JavaMailSender mailSender;
     private final MailProps props;
+    private final MailOutboxRepository outboxRepo;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MethodTimer timer;
 
     /**
-     * Email senden, dass es einen neuen Kunden gibt.
+     * Email, dass es einen neuen Kunden gibt, in der Transaktion des Aufrufers in die Outbox schreiben. Versendet wird
+     * sie nach dem Commit asynchron durch {@link MailDispatcher}.
      *
      * @param neuerKunde Das Objekt des neuen Kunden.
      */
+    @Transactional(propagation = MANDATORY)
     public void send(final Kunde neuerKunde) {
+        timer.record(METRICS_NAME, "send", Tags.empty(), () -> enqueue(neuerKunde));
+    }
+
+    private void enqueue(final Kunde neuerKunde) {
+        final var mail = MailOutbox.builder()
+            .kundeId(neuerKunde.getId())
+            .nachname(neuerKunde.getNachname())
+            .naechsterVersuch(LocalDateTime.now())
+            .build();
+        outboxRepo.save(mail);
+        log.trace("send: {}", mail);
+        eventPublisher.publishEvent(new MailEnqueuedEvent());
+    }
+
+    /**
+     * Emails aus der Outbox über dieselbe SMTP-Verbindung versenden.
+     *
+     * @param mails Die zu versendenden Emails.
+     * @return Die nicht versendeten Emails mit der jeweiligen Exception.
+     */
+    Map<MailOutbox, Exception> sendBatch(final Collection<MailOutbox> mails) {
+        return timer.record(METRICS_NAME, "sendBatch", Tags.empty(), () -> sendMails(mails));
+    }
+
+    private Map<MailOutbox, Exception> sendMails(final Collection<MailOutbox> mails) {
         if (SMTP_DEACTIVATED) {
             log.warn("SMTP ist deaktiviert.");
         }
-        final MimeMessagePreparator preparator = mimeMessage -> {
-            mimeMessage.setFrom(new InternetAddress(props.from()));
-            mimeMessage.setRecipient(TO, new InternetAddress(props.sales()));
-            mimeMessage.setSubject("Neuer Kunde " + neuerKunde.getId());
-            final var body = "<strong>Neuer Kunde:</strong> <em>" + neuerKunde.getNachname() + "</em>";
-            log.trace("send: body={}", body);
-            mimeMessage.setText(body);
-            mimeMessage.setHeader("Content-Type", "text/html");
-        };
+
+        final Map<MimeMessage, MailOutbox> messages = new IdentityHashMap<>(mails.size());
+        final Map<MailOutbox, Exception> failed = new HashMap<>();
+        for (final var mail : mails) {
+            try {
+                messages.put(toMimeMessage(mail), mail);
+            } catch (final MessagingException e) {
+                failed.put(mail, e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return failed;
+        }
 
         try {
-            mailSender.send(preparator);
-        } catch (final MailSendException | MailAuthenticationException e) {
-            // TODO Wiederholung, um die Email zu senden
-            log.warn("Email nicht gesendet: Ist der Mailserver erreichbar?");
+            mailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+        } catch (final MailSendException e) {
+            log.warn("Emails nicht gesendet: Ist der Mailserver erreichbar?");
+            // bei einem Verbindungsfehler sind alle Emails enthalten
+            e.getFailedMessages().forEach((message, ex) -> {
+                final var mail = messages.get(message);
+                if (mail != null) {
+                    failed.put(mail, ex);
+                }
+            });
+            if (e.getFailedMessages().isEmpty()) {
+                messages.values().forEach(mail -> failed.put(mail, e));
+            }
+        } catch (final MailAuthenticationException e) {
+            log.warn("Emails nicht gesendet: Authentifizierung beim Mailserver fehlgeschlagen");
+            messages.values().forEach(mail -> failed.put(mail, e));
+        } catch (final MailException e) {
+            // z.B. MailPreparationException: ohne Rollback, damit die Versuche gezaehlt werden
+            log.warn("Emails nicht gesendet: {}", e.getMessage());
+            messages.values().forEach(mail -> failed.put(mail, e));
         }
+        return failed;
+    }
+
+    private MimeMessage toMimeMessage(final MailOutbox mail) throws MessagingException {
+        final var mimeMessage = mailSender.createMimeMessage();
+        mimeMessage.setFrom(new InternetAddress(props.from()));
+        mimeMessage.setRecipient(TO, new InternetAddress(props.sales()));
+        mimeMessage.setSubject("Neuer Kunde " + mail.getKundeId());
+        final var body = "<strong>Neuer Kunde:</strong> <em>" + mail.getNachname() + "</em>";
+        log.trace("toMimeMessage: body={}", body);
+        mimeMessage.setText(body);
+        mimeMessage.setHeader("Content-Type", "text/html");
+        return mimeMessage;
     }
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.repository;
+
+import java.sql.SQLException;
+import java.util.Locale;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+
+/**
+ * Auswertung einer {@linkplain DataIntegrityViolationException}, ob die Unique-Constraints für Emailadresse oder
+ * Benutzername verletzt sind. Die Constraints sind im DDL-Skript nicht benannt, weshalb SQLState, Fehlercode und
+ * Fehlermeldung der DB herangezogen werden.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+public final class DuplicateKeys {
+    // PostgreSQL und H2
+    private static final String UNIQUE_VIOLATION = "23505";
+    // MySQL und Oracle: Integrity Constraint Violation mit herstellerspezifischem Fehlercode
+    private static final String INTEGRITY_CONSTRAINT_VIOLATION = "23000";
+    private static final int MYSQL_DUPLICATE_ENTRY = 1062;
+    // ORA-00001: unique constraint violated, ohne Spaltenname in der Fehlermeldung
+    private static final int ORACLE_UNIQUE_CONSTRAINT = 1;
+
+    private static final String EMAIL = "email";
+    private static final String USERNAME = "username";
+
+    private DuplicateKeys() {
+    }
+
+    /**
+     * Ist die Ursache die Verletzung des Unique-Constraints für Emailadresse oder Benutzername?
+     *
+     * @param ex Die Exception von Spring Data bzw. Hibernate
+     * @return true, falls Emailadresse oder Benutzername bereits existieren; false bei z.B. Foreign-Key-, NOT-NULL- oder
+     *      CHECK-Constraints
+     */
+    public static boolean isEmailOrUsername(final DataIntegrityViolationException ex) {
+        Throwable cause = ex;
+        while (cause != null) {
+            if (cause instanceof final SQLException sqlException) {
+                return isEmailOrUsername(sqlException);
+            }
+            cause = cause.getCause();
+        }
+        // ohne SQLException nur bei expliziter Uebersetzung als Duplicate Key, z.B. durch JdbcTemplate
+        return ex instanceof DuplicateKeyException && mentionsEmailOrUsername(ex.getMessage());
+    }
+
+    private static boolean isEmailOrUsername(final SQLException ex) {
+        final var sqlState = ex.getSQLState();
+        if (UNIQUE_VIOLATION.equals(sqlState)) {
+            return mentionsEmailOrUsername(ex.getMessage());
+        }
+        if (!INTEGRITY_CONSTRAINT_VIOLATION.equals(sqlState)) {
+            return false;
+        }
+        return switch (ex.getErrorCode()) {
+            case MYSQL_DUPLICATE_ENTRY -> mentionsEmailOrUsername(ex.getMessage());
+            // Oracle nennt nur den generierten Constraint-Namen; die einzigen fachlichen Unique-Constraints sind
+            // Emailadresse und Benutzername
+            case ORACLE_UNIQUE_CONSTRAINT -> true;
+            default -> false;
+        };
+    }
+
+    private static boolean mentionsEmailOrUsername(final String message) {
+        if (message == null) {
+            return false;
+        }
+        final var lowerCase = message.toLowerCase(Locale.ROOT);
+        return lowerCase.contains(EMAIL) || lowerCase.contains(USERNAME);
+    }
+}
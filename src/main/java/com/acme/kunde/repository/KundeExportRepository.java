@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.repository;
+
+import com.acme.kunde.entity.Kunde;
+import com.querydsl.core.types.Predicate;
+import java.util.function.Consumer;
+
+/**
+ * Repository-Fragment, um Kunden für einen Export einzeln aus der DB zu lesen, ohne das gesamte Suchergebnis im
+ * Speicher zu halten.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+public interface KundeExportRepository {
+    /**
+     * Die Kunden zu einem Prädikat mit einem DB-Cursor lesen und einzeln verarbeiten. Jeder Kunde wird nach der
+     * Verarbeitung aus dem Persistenzkontext entfernt.
+     *
+     * @param predicate Das Prädikat für die Suche
+     * @param fetchSize Anzahl der Datensätze, die der JDBC-Treiber jeweils aus der DB holt
+     * @param consumer Die Verarbeitung eines einzelnen Kunden
+     * @return Die Anzahl der verarbeiteten Kunden
+     */
+    long forEach(Predicate predicate, int fetchSize, Consumer<Kunde> consumer);
+}
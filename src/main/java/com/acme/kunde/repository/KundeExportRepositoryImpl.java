@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.repository;
+
+import com.acme.kunde.entity.Kunde;
+import com.acme.kunde.entity.QKunde;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQuery;
+import jakarta.persistence.EntityManager;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionImplementor;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * Implementierung des Repository-Fragments für den Export mit einem DB-Cursor statt einer Liste.
+ * <p>
+ * MySQL Connector/J ignoriert die Fetch Size, sofern die JDBC-URL nicht "useCursorFetch=true" enthält, und liest dann
+ * alle Datensätze in den Hauptspeicher. Der Streaming-Modus mit Fetch Size Integer.MIN_VALUE wird nicht verwendet,
+ * weil dabei keine weiteren Anweisungen über dieselbe Verbindung möglich sind, solange der Cursor offen ist.
+ * </p>
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@RequiredArgsConstructor
+@Slf4j
+class KundeExportRepositoryImpl implements KundeExportRepository {
+    private static final String MYSQL_CURSOR_FETCH = "useCursorFetch=true";
+
+    private final EntityManager entityManager;
+    private volatile boolean cursorFetchChecked;
+
+    @Override
+    public long forEach(final Predicate predicate, final int fetchSize, final Consumer<Kunde> consumer) {
+        log.debug("forEach: predicate={}, fetchSize={}", predicate, fetchSize);
+        checkMySqlCursorFetch();
+        final var kunde = QKunde.kunde;
+        // Read-Only: keine Snapshots fuer Dirty Checking; CacheMode IGNORE: kein Befuellen des 2nd Level Cache
+        final var query = new JPAQuery<Kunde>(entityManager)
+            .select(kunde)
+            .from(kunde)
+            .innerJoin(kunde.adresse)
+            .fetchJoin()
+            .where(predicate)
+            .setHint(HINT_FETCH_SIZE, fetchSize)
+            .setHint(HINT_READ_ONLY, true)
+            .setHint(HINT_CACHE_MODE, CacheMode.IGNORE);
+
+        var anzahl = 0L;
+        try (var kunden = query.stream()) {
+            for (final var iter = kunden.iterator(); iter.hasNext(); anzahl++) {
+                final var k = iter.next();
+                consumer.accept(k);
+                // Heap bleibt konstant: weder Kunde noch Adresse verbleiben im Persistenzkontext
+                entityManager.detach(k.getAdresse());
+                entityManager.detach(k);
+            }
+        }
+        log.debug("forEach: anzahl={}", anzahl);
+        return anzahl;
+    }
+
+    // einmalig pruefen, ob bei MySQL die Fetch Size wirksam ist
+    private void checkMySqlCursorFetch() {
+        if (cursorFetchChecked) {
+            return;
+        }
+        cursorFetchChecked = true;
+        final var session = entityManager.unwrap(SessionImplementor.class);
+        if (!(session.getJdbcServices().getDialect() instanceof MySQLDialect)) {
+            return;
+        }
+        final var url = session.doReturningWork(connection -> connection.getMetaData().getURL());
+        if (url == null || !url.contains(MYSQL_CURSOR_FETCH)) {
+            log.warn("forEach: Die JDBC-URL fuer MySQL enthaelt nicht \"{}\", deshalb wird beim Export die " +
+                "Fetch Size ignoriert und alle Datensaetze werden gepuffert", MYSQL_CURSOR_FETCH);
+        }
+    }
+}
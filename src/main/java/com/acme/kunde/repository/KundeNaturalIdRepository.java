@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.repository;
+
+/**
+ * Repository-Fragment, um Kunden über die Emailadresse als Natural ID zu finden, so dass die Zuordnung zur ID aus dem
+ * 2nd Level Cache gelesen werden kann.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+public interface KundeNaturalIdRepository {
+    /**
+     * Abfrage, ob es einen Kunden mit gegebener Emailadresse gibt.
+     *
+     * @param email Emailadresse für die Suche
+     * @return true, falls es einen solchen Kunden gibt, sonst false
+     */
+    @SuppressWarnings("BooleanMethodNameMustStartWithQuestion")
+    boolean existsByEmail(String email);
+}
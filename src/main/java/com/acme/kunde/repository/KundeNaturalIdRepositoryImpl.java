@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.repository;
+
+import com.acme.kunde.entity.Kunde;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Implementierung des Repository-Fragments für die Emailadresse als Natural ID.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+// Transaktion, damit die Session von unwrap() nicht bereits geschlossen ist
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+class KundeNaturalIdRepositoryImpl implements KundeNaturalIdRepository {
+    private final EntityManager entityManager;
+
+    // getReference: nur die ID wird ermittelt, d.h. der Kunde wird nicht geladen
+    @Override
+    public boolean existsByEmail(final String email) {
+        return entityManager.unwrap(Session.class)
+            .bySimpleNaturalId(Kunde.class)
+            .getReference(email) != null;
+    }
+}
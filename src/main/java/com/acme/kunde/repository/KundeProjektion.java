@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.repository;
+
+import com.acme.kunde.entity.Adresse;
+import com.acme.kunde.entity.FamilienstandType;
+import com.acme.kunde.entity.GeschlechtType;
+import com.acme.kunde.entity.InteresseType;
+import java.net.URL;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Projektion auf die angeforderten Attribute eines Kunden, z.B. für eine Query bei GraphQL mit nur wenigen Feldern.
+ * Nicht angeforderte Attribute sind null. Die Adresse wird nicht im Persistenzkontext verwaltet.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param id ID des Kunden
+ * @param version Versionsnummer des Kunden
+ * @param nachname Nachname des Kunden
+ * @param email Email des Kunden
+ * @param kategorie Kategorie des Kunden
+ * @param hasNewsletter Flag, ob es ein Newsletter-Abo gibt
+ * @param geburtsdatum Geburtsdatum des Kunden
+ * @param homepage Homepage des Kunden
+ * @param geschlecht Geschlecht des Kunden
+ * @param familienstand Familienstand des Kunden
+ * @param interessen Interessen des Kunden
+ * @param username Benutzername des Kunden
+ * @param adresse Adresse des Kunden mit den angeforderten Attributen
+ */
+@SuppressWarnings("RecordComponentNumber")
+public record KundeProjektion(
+    UUID id,
+    Integer version,
+    String nachname,
+    String email,
+    Integer kategorie,
+    Boolean hasNewsletter,
+    LocalDate geburtsdatum,
+    URL homepage,
+    GeschlechtType geschlecht,
+    FamilienstandType familienstand,
+    List<InteresseType> interessen,
+    String username,
+    Adresse adresse
+) {
+}
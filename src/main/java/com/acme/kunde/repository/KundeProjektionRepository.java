@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.repository;
+
+import com.querydsl.core.types.Predicate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository-Fragment, um nur die angeforderten Attribute von Kunden zu lesen, d.h. ohne Entity-Objekte im
+ * Persistenzkontext.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+public interface KundeProjektionRepository {
+    /**
+     * Attribut für die Adresse, das bei jedem angeforderten Feld der Adresse enthalten ist.
+     */
+    String ADRESSE_ATTR = "adresse";
+
+    /**
+     * Attribut für die Postleitzahl der Adresse.
+     */
+    String ADRESSE_PLZ = "adresse.plz";
+
+    /**
+     * Attribut für den Ort der Adresse.
+     */
+    String ADRESSE_ORT = "adresse.ort";
+
+    /**
+     * Die Kunden zu einem Prädikat mit einer Projektion auf die angegebenen Attribute suchen. Die Tabelle "adresse"
+     * wird nur bei Attributen der Adresse gejoint, dann aber mit allen Spalten der Adresse, damit die Adresse nie
+     * null ist. Die ID ist immer enthalten.
+     *
+     * @param predicate Das Prädikat für die Suche
+     * @param attribute Die Namen der Attribute, z.B. "nachname" oder "adresse.plz"; unbekannte Namen werden ignoriert
+     * @return Die gefundenen Kunden als Projektion oder eine leere Liste
+     */
+    List<KundeProjektion> findProjektionen(Predicate predicate, Collection<String> attribute);
+}
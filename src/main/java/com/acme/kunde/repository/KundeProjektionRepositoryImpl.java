@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.repository;
+
+import com.acme.kunde.entity.Adresse;
+import com.acme.kunde.entity.InteresseType;
+import com.acme.kunde.entity.QAdresse;
+import com.acme.kunde.entity.QKunde;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQuery;
+import jakarta.persistence.EntityManager;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import static java.util.Collections.emptyList;
+import static java.util.Map.entry;
+
+/**
+ * Implementierung des Repository-Fragments für Projektionen mit einer Tuple-Query von QueryDSL.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@RequiredArgsConstructor
+@Slf4j
+class KundeProjektionRepositoryImpl implements KundeProjektionRepository {
+    private static final QKunde KUNDE = QKunde.kunde;
+    private static final QAdresse ADRESSE = QAdresse.adresse;
+
+    private static final Map<String, Expression<?>> PFADE = Map.ofEntries(
+        entry("id", KUNDE.id),
+        entry("version", KUNDE.version),
+        entry("nachname", KUNDE.nachname),
+        entry("email", KUNDE.email),
+        entry("kategorie", KUNDE.kategorie),
+        entry("hasNewsletter", KUNDE.hasNewsletter),
+        entry("geburtsdatum", KUNDE.geburtsdatum),
+        entry("homepage", KUNDE.homepage),
+        entry("geschlecht", KUNDE.geschlecht),
+        entry("familienstand", KUNDE.familienstand),
+        entry("interessen", KUNDE.interessenBits),
+        entry("username", KUNDE.username),
+        entry(ADRESSE_PLZ, ADRESSE.plz),
+        entry(ADRESSE_ORT, ADRESSE.ort)
+    );
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<KundeProjektion> findProjektionen(final Predicate predicate, final Collection<String> attribute) {
+        log.debug("findProjektionen: predicate={}, attribute={}", predicate, attribute);
+        // die ID immer, z.B. fuer einen DataLoader zu den Umsaetzen
+        final var pfade = new LinkedHashSet<Expression<?>>();
+        pfade.add(KUNDE.id);
+        attribute.stream()
+            .map(PFADE::get)
+            .filter(Objects::nonNull)
+            .forEach(pfade::add);
+        // z.B. "adresse { __typename }" ohne plz und ort: die Adresse ist im Schema trotzdem nicht null
+        final var mitAdresse = attribute.contains(ADRESSE_ATTR) || pfade.contains(ADRESSE.plz) ||
+            pfade.contains(ADRESSE.ort);
+        if (mitAdresse) {
+            pfade.add(ADRESSE.plz);
+            pfade.add(ADRESSE.ort);
+        }
+        final var mitInteressen = pfade.contains(KUNDE.interessenBits);
+
+        final var query = new JPAQuery<Tuple>(entityManager)
+            .select(pfade.toArray(Expression<?>[]::new))
+            .from(KUNDE);
+        if (mitAdresse) {
+            query.innerJoin(KUNDE.adresse, ADRESSE);
+        }
+        final var projektionen = query
+            .where(predicate)
+            .orderBy(KUNDE.id.asc())
+            .fetch()
+            .stream()
+            .map(tuple -> toProjektion(tuple, mitAdresse, mitInteressen))
+            .toList();
+        log.debug("findProjektionen: anzahl={}", projektionen.size());
+        return projektionen;
+    }
+
+    private KundeProjektion toProjektion(final Tuple tuple, final boolean mitAdresse, final boolean mitInteressen) {
+        final var adresse = mitAdresse
+            ? Adresse.builder().plz(tuple.get(ADRESSE.plz)).ort(tuple.get(ADRESSE.ort)).build()
+            : null;
+        return new KundeProjektion(
+            tuple.get(KUNDE.id),
+            tuple.get(KUNDE.version),
+            tuple.get(KUNDE.nachname),
+            tuple.get(KUNDE.email),
+            tuple.get(KUNDE.kategorie),
+            tuple.get(KUNDE.hasNewsletter),
+            tuple.get(KUNDE.geburtsdatum),
+            tuple.get(KUNDE.homepage),
+            tuple.get(KUNDE.geschlecht),
+            tuple.get(KUNDE.familienstand),
+            mitInteressen ? toInteressen(tuple.get(KUNDE.interessenBits)) : null,
+            tuple.get(KUNDE.username),
+            adresse
+        );
+    }
+
+    // wie Kunde.loadInteressen()
+    private List<InteresseType> toInteressen(final Integer interessenBits) {
+        if (interessenBits == null || interessenBits == 0) {
+            return emptyList();
+        }
+        return List.copyOf(InteresseType.fromBits(interessenBits));
+    }
+}
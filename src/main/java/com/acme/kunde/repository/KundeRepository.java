@@ -18,16 +18,24 @@ package com.acme.kunde.repository;
 
 import com.acme.kunde.entity.Kunde;
 import com.querydsl.core.types.Predicate;
+import jakarta.persistence.QueryHint;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
 import static com.acme.kunde.entity.Kunde.ADRESSE_GRAPH;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import org.springframework.data.repository.query.FluentQuery.FetchableFluentQuery;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Repository für den DB-Zugriff bei Kunden.
@@ -35,7 +43,9 @@ import org.springframework.stereotype.Repository;
  * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
  */
 @Repository
-public interface KundeRepository extends JpaRepository<Kunde, UUID>, QuerydslPredicateExecutor<Kunde> {
+public interface KundeRepository
+    extends JpaRepository<Kunde, UUID>, QuerydslPredicateExecutor<Kunde>, KundeExportRepository,
+    KundeProjektionRepository, KundeNaturalIdRepository {
     @EntityGraph(ADRESSE_GRAPH)
     @Override
     List<Kunde> findAll();
@@ -45,48 +55,36 @@ public interface KundeRepository extends JpaRepository<Kunde, UUID>, QuerydslPre
     @Override
     List<Kunde> findAll(Predicate predicate);
 
+    @EntityGraph(ADRESSE_GRAPH)
+    @Override
+    <S extends Kunde, R> R findBy(Predicate predicate, Function<FetchableFluentQuery<S>, R> queryFunction);
+
     @EntityGraph(ADRESSE_GRAPH)
     // @EntityGraph(ADRESSE_UMSAETZE_GRAPH) // NOSONAR
     @Override
     Optional<Kunde> findById(UUID id);
 
     /**
-     * Kunde zu gegebener Emailadresse aus der DB ermitteln.
+     * Nur ID, Versionsnummer und Benutzername zu einer Kunde-ID ermitteln, d.h. ohne Join mit der Tabelle "adresse".
      *
-     * @param email Emailadresse für die Suche
-     * @return Optional mit dem gefundenen Kunde oder leeres Optional
+     * @param id Die ID des gesuchten Kunden
+     * @return Optional mit der Projektion oder leeres Optional
      */
     @Query("""
-        SELECT k
+        SELECT new com.acme.kunde.repository.KundeVersion(k.id, k.version, k.username)
         FROM   Kunde k
-        WHERE  lower(k.email) LIKE concat(lower(:email), '%')
+        WHERE  k.id = :id
         """)
-    @EntityGraph(ADRESSE_GRAPH)
-    Optional<Kunde> findByEmail(String email);
+    Optional<KundeVersion> findVersionById(UUID id);
 
     /**
-     * Abfrage, ob es einen Kunden mit gegebener Emailadresse gibt.
+     * Die bereits vorhandenen Emailadressen aus einer Menge von Emailadressen ermitteln.
      *
-     * @param email Emailadresse für die Suche
-     * @return true, falls es einen solchen Kunden gibt, sonst false
+     * @param emails Die zu überprüfenden Emailadressen
+     * @return Die bereits vorhandenen Emailadressen
      */
-    @SuppressWarnings("BooleanMethodNameMustStartWithQuestion")
-    boolean existsByEmail(String email);
-
-    /**
-     * Kunden anhand des Nachnamens suchen.
-     *
-     * @param nachname Der (Teil-) Nachname der gesuchten Kunden
-     * @return Die gefundenen Kunden oder eine leere Collection
-     */
-    @Query("""
-        SELECT   k
-        FROM     Kunde k
-        WHERE    lower(k.nachname) LIKE concat('%', lower(:nachname), '%')
-        ORDER BY k.id
-        """)
-    @EntityGraph(ADRESSE_GRAPH)
-    Collection<Kunde> findByNachname(CharSequence nachname);
+    @Query("SELECT k.email FROM Kunde k WHERE k.email IN :emails")
+    List<String> findEmails(Collection<String> emails);
 
     /**
      * Abfrage, welche Nachnamen es zu einem Präfix gibt.
@@ -100,5 +98,59 @@ public interface KundeRepository extends JpaRepository<Kunde, UUID>, QuerydslPre
         WHERE    lower(k.nachname) LIKE concat(lower(:prefix), '%')
         ORDER BY k.nachname
         """)
+    // Query-Cache: das Ergebnis wird bei Aenderungen in der Tabelle "kunde" ungueltig
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    // ohne readOnly-Transaktion und damit bei Read Replicas aus der primaeren DB: ein Ergebnis von einer verzoegerten
+    // Read Replica wuerde sonst nach der Invalidierung durch eine Aenderung erneut gecacht
+    @Transactional(propagation = NOT_SUPPORTED)
     Collection<String> findNachnamenByPrefix(String prefix);
+
+    /**
+     * Die verschiedenen Nachnamen mit der jeweiligen Anzahl an Kunden ermitteln, z.B. für einen Index im Hauptspeicher.
+     *
+     * @return Die Nachnamen mit ihrer Anzahl
+     */
+    @Query("""
+        SELECT   new com.acme.kunde.repository.NachnameAnzahl(k.nachname, count(k))
+        FROM     Kunde k
+        GROUP BY k.nachname
+        """)
+    List<NachnameAnzahl> countNachnamen();
+
+    /**
+     * Die Anzahl der Kunden zu den Nachnamen mit den gegebenen Kleinschreibungen ermitteln.
+     *
+     * @param keys Die Nachnamen in Kleinschreibung
+     * @return Die Nachnamen mit ihrer Anzahl
+     */
+    @Query("""
+        SELECT   new com.acme.kunde.repository.NachnameAnzahl(k.nachname, count(k))
+        FROM     Kunde k
+        WHERE    lower(k.nachname) IN :keys
+        GROUP BY k.nachname
+        """)
+    List<NachnameAnzahl> countNachnamen(Collection<String> keys);
+
+    /**
+     * Die Emailadressen aller Kunden ermitteln, z.B. für einen Filter im Hauptspeicher. Der Stream muss innerhalb einer
+     * Transaktion verarbeitet und danach geschlossen werden.
+     *
+     * @return Die Emailadressen als Stream
+     */
+    @Query("SELECT k.email FROM Kunde k")
+    Stream<String> findAllEmails();
+
+    /**
+     * Die Umsätze zu mehreren Kunden mit einer einzigen Query ermitteln, d.h. ohne die Kunden erneut zu laden.
+     *
+     * @param ids Die IDs der Kunden
+     * @return Die Umsätze mit der jeweiligen Kunde-ID in der Reihenfolge der Liste "umsaetze" eines Kunden
+     */
+    @Query("""
+        SELECT   new com.acme.kunde.repository.KundeUmsatz(k.id, u.betrag, u.waehrung)
+        FROM     Kunde k JOIN k.umsaetze u
+        WHERE    k.id IN :ids
+        ORDER BY k.id, index(u)
+        """)
+    List<KundeUmsatz> findUmsaetzeByKundeIds(Collection<UUID> ids);
 }
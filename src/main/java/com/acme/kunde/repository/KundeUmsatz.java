@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.repository;
+
+import com.acme.kunde.entity.Umsatz;
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.UUID;
+
+/**
+ * Projektion auf einen Umsatz zusammen mit der ID des zugehörigen Kunden, z.B. um die Umsätze zu mehreren Kunden mit
+ * einer einzigen Query zu laden, ohne dass die Kunden selbst geladen werden.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param kundeId ID des Kunden
+ * @param betrag Betrag des Umsatzes
+ * @param waehrung Währung des Umsatzes
+ */
+public record KundeUmsatz(UUID kundeId, BigDecimal betrag, Currency waehrung) {
+    /**
+     * Konvertierung in ein Umsatz-Objekt, das nicht im Persistenzkontext verwaltet wird.
+     *
+     * @return Umsatz mit Betrag und Währung
+     */
+    public Umsatz toUmsatz() {
+        return Umsatz
+            .builder()
+            .betrag(betrag)
+            .waehrung(waehrung)
+            .build();
+    }
+}
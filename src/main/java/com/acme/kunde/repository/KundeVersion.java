@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.repository;
+
+import java.util.UUID;
+
+/**
+ * Projektion auf ID, Versionsnummer und Benutzername eines Kunden, z.B. für ein bedingtes GET mit If-None-Match, ohne
+ * dass der Kunde mit seiner Adresse geladen werden muss.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param id ID des Kunden
+ * @param version Versionsnummer für optimistische Synchronisation
+ * @param username Benutzername des Kunden
+ */
+public record KundeVersion(UUID id, int version, String username) {
+}
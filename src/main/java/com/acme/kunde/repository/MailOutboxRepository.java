@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.repository;
+
+import com.acme.kunde.entity.MailOutbox;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import static jakarta.persistence.LockModeType.PESSIMISTIC_WRITE;
+
+/**
+ * Repository für den DB-Zugriff bei noch nicht versendeten Emails.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, UUID> {
+    /**
+     * Die fälligen und nicht endgültig fehlgeschlagenen Emails ermitteln und bis zum Ende der Transaktion sperren. Von
+     * einer anderen Transaktion bereits gesperrte Emails werden übersprungen ("SKIP LOCKED"), so dass mehrere Instanzen
+     * der Anwendung parallel versenden können.
+     *
+     * @param jetzt Der aktuelle Zeitpunkt
+     * @param pageable Die maximale Anzahl an Emails
+     * @return Die fälligen Emails
+     */
+    @Query("""
+        SELECT   m
+        FROM     MailOutbox m
+        WHERE    m.naechsterVersuch <= :jetzt AND m.fehlgeschlagen = false
+        ORDER BY m.naechsterVersuch
+        """)
+    @Lock(PESSIMISTIC_WRITE)
+    // -2: org.hibernate.LockOptions.SKIP_LOCKED
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<MailOutbox> findFaellige(LocalDateTime jetzt, Pageable pageable);
+}
@@ -16,20 +16,23 @@
  */
 package com.acme.kunde.repository;
 
+import com.acme.kunde.SearchProps;
 import com.acme.kunde.entity.FamilienstandType;
 import com.acme.kunde.entity.GeschlechtType;
 import com.acme.kunde.entity.InteresseType;
 import com.acme.kunde.entity.QKunde;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.core.types.Predicate;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.IntStream;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import static java.util.Locale.GERMAN;
 
 /**
  * Singleton-Klasse, um Prädikate durch QueryDSL für eine WHERE-Klausel zu bauen.
@@ -37,8 +40,16 @@ import static java.util.Locale.GERMAN;
  * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
  */
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class PredicateBuilder {
+    // zu jeder Bitmaske der Interessen die Bitmasken, die sie enthalten, z.B. 0b010 -> 0b010, 0b011, 0b110, 0b111
+    private static final List<List<Integer>> OBERMENGEN = IntStream.rangeClosed(0, InteresseType.ALLE_BITS)
+        .mapToObj(PredicateBuilder::obermengen)
+        .toList();
+
+    private final SearchProps props;
+
     /**
      * Prädikate durch QueryDSL für eine WHERE-Klausel zu bauen.
      *
@@ -93,11 +104,11 @@ public class PredicateBuilder {
     }
 
     private BooleanExpression nachname(final String teil, final QKunde qKunde) {
-        return qKunde.nachname.toLowerCase().matches("%" + teil.toLowerCase(GERMAN) + '%');
+        return props.strategy().matches(qKunde.nachname, teil);
     }
 
     private BooleanExpression email(final String teil, final QKunde qKunde) {
-        return qKunde.email.toLowerCase().matches("%" + teil.toLowerCase(GERMAN) + '%');
+        return props.strategy().matches(qKunde.email, teil);
     }
 
     private BooleanExpression kategorie(final String kategorie, final QKunde qKunde) {
@@ -128,19 +139,26 @@ public class PredicateBuilder {
             return null;
         }
 
-        final var expressionList = interessen
+        final var gesuchteInteressen = interessen
             .stream()
-            .map(interesseStr -> InteresseType.of(interesseStr).orElse(null))
-            .filter(Objects::nonNull)
-            .map(interesse -> qKunde.interessenStr.matches("%" + interesse.name() + '%'))
+            .map(InteresseType::of)
+            .flatMap(Optional::stream)
             .toList();
-        if (expressionList.isEmpty()) {
+        if (gesuchteInteressen.isEmpty()) {
             return null;
         }
 
-        return expressionList
-            .stream()
-            .reduce(expressionList.get(0), BooleanExpression::and);
+        // alle Bitmasken, die mindestens die gesuchten Bits enthalten: IN-Liste statt LIKE '%...%'
+        final var bits = InteresseType.toBits(gesuchteInteressen);
+        return qKunde.interessenBits.in(OBERMENGEN.get(bits));
+    }
+
+    private static List<Integer> obermengen(final int bits) {
+        final var result = new ArrayList<Integer>();
+        for (var obermenge = bits; obermenge <= InteresseType.ALLE_BITS; obermenge = (obermenge + 1) | bits) {
+            result.add(obermenge);
+        }
+        return List.copyOf(result);
     }
 
     private BooleanExpression plz(final String prefix, final QKunde qKunde) {
@@ -148,6 +166,6 @@ public class PredicateBuilder {
     }
 
     private BooleanExpression ort(final String prefix, final QKunde qKunde) {
-        return qKunde.adresse.ort.toLowerCase().matches("%" + prefix.toLowerCase(GERMAN) + '%');
+        return props.strategy().matches(qKunde.adresse.ort, prefix);
     }
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.repository;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.StringExpression;
+import static java.util.Locale.GERMAN;
+
+/**
+ * Strategie für die Suche nach einem Teilstring ohne Berücksichtigung von Groß- und Kleinschreibung, damit die
+ * Prädikate zu den Indexen aus der Migration V1.2 passen.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+public enum SearchStrategy {
+    /**
+     * Suche mit <code>lower(...) LIKE '%...%'</code>: bei PostgreSQL mit einem GIN-Index für Trigramme durch pg_trgm,
+     * bei MySQL, Oracle und H2 ohne Index.
+     */
+    CONTAINS {
+        @Override
+        BooleanExpression matches(final StringExpression path, final String teil) {
+            return path.toLowerCase().like("%" + teil.toLowerCase(GERMAN) + '%');
+        }
+    },
+
+    /**
+     * Suche mit <code>lower(...) LIKE '...%'</code>: bei PostgreSQL, MySQL und Oracle mit einem B-Baum für den
+     * Ausdruck lower(...).
+     */
+    PREFIX {
+        @Override
+        BooleanExpression matches(final StringExpression path, final String teil) {
+            return path.toLowerCase().like(teil.toLowerCase(GERMAN) + '%');
+        }
+    };
+
+    /**
+     * Prädikat für die Suche nach einem Teilstring.
+     *
+     * @param path Pfad des Attributs, z.B. nachname
+     * @param teil Der gesuchte Teilstring
+     * @return Das Prädikat für die WHERE-Klausel
+     */
+    abstract BooleanExpression matches(StringExpression path, String teil);
+}
@@ -16,14 +16,20 @@
  */
 package com.acme.kunde.rest;
 
+import com.acme.kunde.security.PasswordHashingBusyException;
 import com.acme.kunde.service.AccessForbiddenException;
+import com.acme.kunde.service.InvalidCursorException;
 import com.acme.kunde.service.NotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.FORBIDDEN;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 
 /**
  * Handler für allgemeine Exceptions.
@@ -44,4 +50,16 @@ class CommonExceptionHandler {
     void onAccessForbidden(final AccessForbiddenException ex) {
         log.debug("onAccessForbidden: {}", ex.getMessage());
     }
+
+    @ExceptionHandler
+    @ResponseStatus(BAD_REQUEST)
+    void onInvalidCursor(final InvalidCursorException ex) {
+        log.debug("onInvalidCursor: {}", ex.getMessage());
+    }
+
+    @ExceptionHandler
+    ResponseEntity<Void> onPasswordHashingBusy(final PasswordHashingBusyException ex) {
+        log.debug("onPasswordHashingBusy: {}", ex.getMessage());
+        return ResponseEntity.status(SERVICE_UNAVAILABLE).header(RETRY_AFTER, ex.getRetryAfterSeconds()).build();
+    }
 }
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.rest;
+
+import com.acme.kunde.ExportProps;
+import com.acme.kunde.entity.Kunde;
+import com.acme.kunde.service.KundeReadService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import static com.acme.kunde.rest.KundeGetController.REST_PATH;
+import static com.fasterxml.jackson.databind.SerializationFeature.INDENT_OUTPUT;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.springframework.http.HttpHeaders.CONTENT_DISPOSITION;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+import static org.springframework.http.ResponseEntity.ok;
+
+/**
+ * Eine Controller-Klasse für den Export von Kunden als NDJSON oder CSV. Die Kunden werden mit einem DB-Cursor gelesen
+ * und sofort in den Ausgabestrom geschrieben, d.h. der Speicherbedarf ist unabhängig von der Anzahl der Kunden. Der
+ * StreamingResponseBody wird durch den AsyncTaskExecutor mit Virtual Threads ausgeführt und hat einen eigenen Timeout
+ * "app.export.timeout", so dass der Timeout für andere asynchrone Requests unverändert bleibt.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Controller
+@RequestMapping(REST_PATH)
+@ResponseBody
+@RequiredArgsConstructor
+@Slf4j
+public class KundeExportController {
+    /**
+     * Pfad für den Export.
+     */
+    public static final String EXPORT_PATH = "/export"; //NOSONAR
+
+    /**
+     * Mediatype für CSV.
+     */
+    static final String TEXT_CSV_VALUE = "text/csv";
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", UTF_8);
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final KundeReadService service;
+    private final ObjectMapper mapper;
+    private final ExportProps props;
+
+    /**
+     * Export der Kunden zu Suchkriterien als NDJSON, d.h. ein JSON-Datensatz pro Zeile.
+     *
+     * @param suchkriterien Query-Parameter als Map wie bei der Suche.
+     * @param request Das Request-Objekt für den Timeout der asynchronen Verarbeitung
+     * @return Ein Response mit dem Statuscode 200 und den Kunden als Stream.
+     */
+    @GetMapping(path = EXPORT_PATH, produces = APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export als NDJSON", tags = "Suchen")
+    @ApiResponse(responseCode = "200", description = "Kunden als NDJSON")
+    ResponseEntity<StreamingResponseBody> exportNdjson(
+        @RequestParam @NonNull final MultiValueMap<String, String> suchkriterien,
+        final HttpServletRequest request
+    ) {
+        log.debug("exportNdjson: suchkriterien={}", suchkriterien);
+        // NDJSON: genau eine Zeile pro Datensatz
+        final var jsonWriter = mapper.writerFor(KundeExportDTO.class).without(INDENT_OUTPUT);
+        return export(suchkriterien, APPLICATION_NDJSON, "kunden.ndjson", null, (kunde, writer) -> {
+            writer.write(jsonWriter.writeValueAsString(KundeExportDTO.fromKunde(kunde)));
+            writer.write('\n');
+        }, request);
+    }
+
+    /**
+     * Export der Kunden zu Suchkriterien als CSV mit einer Kopfzeile.
+     *
+     * @param suchkriterien Query-Parameter als Map wie bei der Suche.
+     * @param request Das Request-Objekt für den Timeout der asynchronen Verarbeitung
+     * @return Ein Response mit dem Statuscode 200 und den Kunden als Stream.
+     */
+    @GetMapping(path = EXPORT_PATH, produces = TEXT_CSV_VALUE)
+    @Operation(summary = "Export als CSV", tags = "Suchen")
+    @ApiResponse(responseCode = "200", description = "Kunden als CSV")
+    ResponseEntity<StreamingResponseBody> exportCsv(
+        @RequestParam @NonNull final MultiValueMap<String, String> suchkriterien,
+        final HttpServletRequest request
+    ) {
+        log.debug("exportCsv: suchkriterien={}", suchkriterien);
+        return export(suchkriterien, TEXT_CSV, "kunden.csv", KundeExportDTO.CSV_HEADER, (kunde, writer) -> {
+            writer.write(KundeExportDTO.fromKunde(kunde).toCsv());
+            writer.write("\r\n");
+        }, request);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(
+        final MultiValueMap<String, String> suchkriterien,
+        final MediaType mediaType,
+        final String filename,
+        final String header,
+        final KundeWriter kundeWriter,
+        final HttpServletRequest request
+    ) {
+        // eigener Timeout nur fuer diesen Request, bevor der StreamingResponseBody asynchron ausgefuehrt wird
+        WebAsyncUtils.getAsyncManager(request)
+            .registerCallableInterceptor(TimeoutInterceptor.class.getName(), new TimeoutInterceptor(props.timeout()));
+
+        // Schreiben mit blockierendem I/O: liest der Client langsamer, als die DB liefert, blockiert der (virtuelle)
+        // Thread beim Schreiben und es werden erst dann weitere Datensaetze ueber den DB-Cursor gelesen
+        final StreamingResponseBody body = out -> {
+            final var writer = new BufferedWriter(new OutputStreamWriter(out, UTF_8), BUFFER_SIZE);
+            if (header != null) {
+                writer.write(header);
+                writer.write("\r\n");
+            }
+            final var flushSize = props.flushSize();
+            final var anzahl = new long[1];
+            service.export(suchkriterien, kunde -> {
+                try {
+                    kundeWriter.write(kunde, writer);
+                    if (++anzahl[0] % flushSize == 0) {
+                        writer.flush();
+                    }
+                } catch (final IOException ex) {
+                    // z.B. Verbindungsabbruch durch den Client: DB-Cursor und Transaktion werden beendet
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            writer.flush();
+            log.debug("export: anzahl={}", anzahl[0]);
+        };
+
+        final var contentDisposition = ContentDisposition.attachment().filename(filename).build();
+        return ok()
+            .contentType(mediaType)
+            .header(CONTENT_DISPOSITION, contentDisposition.toString())
+            .body(body);
+    }
+
+    /**
+     * Setzt den Timeout "app.export.timeout" für die asynchrone Ausführung des StreamingResponseBody.
+     *
+     * @param timeout Maximale Dauer des Exports
+     */
+    private record TimeoutInterceptor(Duration timeout) implements CallableProcessingInterceptor {
+        @Override
+        public <T> void beforeConcurrentHandling(final NativeWebRequest request, final Callable<T> task) {
+            if (request instanceof final AsyncWebRequest asyncWebRequest) {
+                asyncWebRequest.setTimeout(timeout.toMillis());
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface KundeWriter {
+        void write(Kunde kunde, Writer writer) throws IOException;
+    }
+}
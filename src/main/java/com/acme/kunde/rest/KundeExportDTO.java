@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.rest;
+
+import com.acme.kunde.entity.FamilienstandType;
+import com.acme.kunde.entity.GeschlechtType;
+import com.acme.kunde.entity.InteresseType;
+import com.acme.kunde.entity.Kunde;
+import java.net.URL;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ValueObject für den Export eines Kunden als NDJSON oder CSV.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param id ID des Kunden.
+ * @param nachname Nachname des Kunden.
+ * @param email Email des Kunden.
+ * @param kategorie Kategorie des Kunden.
+ * @param hasNewsletter Flag, ob es ein Newsletter-Abo gibt.
+ * @param geburtsdatum Das Geburtsdatum des Kunden.
+ * @param homepage Die Homepage des Kunden.
+ * @param geschlecht Das Geschlecht des Kunden.
+ * @param familienstand Der Familienstand des Kunden.
+ * @param interessen Die Interessen des Kunden.
+ * @param adresse Die Adresse des Kunden.
+ */
+@SuppressWarnings("RecordComponentNumber")
+record KundeExportDTO(
+    UUID id,
+    String nachname,
+    String email,
+    int kategorie,
+    boolean hasNewsletter,
+    LocalDate geburtsdatum,
+    URL homepage,
+    GeschlechtType geschlecht,
+    FamilienstandType familienstand,
+    List<InteresseType> interessen,
+    AdresseDTO adresse
+) {
+    /**
+     * Kopfzeile für den Export als CSV.
+     */
+    static final String CSV_HEADER =
+        "id,nachname,email,kategorie,hasNewsletter,geburtsdatum,homepage,geschlecht,familienstand,interessen,plz,ort";
+
+    private static final char CSV_SEPARATOR = ',';
+    private static final char QUOTE = '"';
+
+    /**
+     * Konvertierung eines Objekts des Anwendungskerns.
+     *
+     * @param kunde Kunde mit Adresse aus dem Anwendungskern
+     * @return ValueObject für den Export
+     */
+    static KundeExportDTO fromKunde(final Kunde kunde) {
+        final var adresse = kunde.getAdresse();
+        return new KundeExportDTO(
+            kunde.getId(),
+            kunde.getNachname(),
+            kunde.getEmail(),
+            kunde.getKategorie(),
+            kunde.isHasNewsletter(),
+            kunde.getGeburtsdatum(),
+            kunde.getHomepage(),
+            kunde.getGeschlecht(),
+            kunde.getFamilienstand(),
+            kunde.getInteressen(),
+            adresse == null ? null : new AdresseDTO(adresse.getPlz(), adresse.getOrt())
+        );
+    }
+
+    /**
+     * Konvertierung in eine Zeile für den Export als CSV gemäß RFC 4180.
+     *
+     * @return Die Zeile ohne Zeilenende
+     */
+    String toCsv() {
+        final var interessenStr = interessen == null
+            ? null
+            : interessen.stream()
+                .map(InteresseType::toString)
+                .collect(Collectors.joining(" "));
+        return Stream.of(
+                id, nachname, email, kategorie, hasNewsletter, geburtsdatum, homepage, geschlecht, familienstand,
+                interessenStr, adresse == null ? null : adresse.plz(), adresse == null ? null : adresse.ort()
+            )
+            .map(KundeExportDTO::escape)
+            .collect(Collectors.joining(String.valueOf(CSV_SEPARATOR)));
+    }
+
+    private static String escape(final Object value) {
+        if (value == null) {
+            return "";
+        }
+        final var str = Objects.toString(value);
+        if (str.indexOf(CSV_SEPARATOR) < 0 && str.indexOf(QUOTE) < 0 && str.indexOf('\n') < 0 &&
+            str.indexOf('\r') < 0) {
+            return str;
+        }
+        return QUOTE + str.replace("\"", "\"\"") + QUOTE;
+    }
+}
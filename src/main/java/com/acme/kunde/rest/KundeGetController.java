@@ -17,6 +17,7 @@
 package com.acme.kunde.rest;
 
 import com.acme.kunde.entity.Kunde;
+import com.acme.kunde.service.KundeCursor;
 import com.acme.kunde.service.KundeReadService;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.Operation;
@@ -29,11 +30,13 @@ import java.util.UUID;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.LinkRelation;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -43,7 +46,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
 import static com.acme.kunde.rest.KundeGetController.REST_PATH;
+import static org.springframework.hateoas.IanaLinkRelations.NEXT;
 import static org.springframework.hateoas.MediaTypes.HAL_JSON_VALUE;
 import static org.springframework.http.HttpStatus.FORBIDDEN;
 import static org.springframework.http.HttpStatus.NOT_MODIFIED;
@@ -83,6 +88,16 @@ public class KundeGetController {
     public static final String ID_PATTERN =
         "[\\dA-Fa-f]{8}-[\\dA-Fa-f]{4}-[\\dA-Fa-f]{4}-[\\dA-Fa-f]{4}-[\\dA-Fa-f]{12}";
 
+    /**
+     * Query-Parameter für den Cursor beim seitenweisen Lesen.
+     */
+    public static final String CURSOR_PARAM = "cursor";
+
+    /**
+     * Query-Parameter für die Seitengröße beim seitenweisen Lesen.
+     */
+    public static final String SIZE_PARAM = "size";
+
     private final KundeReadService service;
     private final UriHelper uriHelper;
 
@@ -115,14 +130,20 @@ public class KundeGetController {
             return status(FORBIDDEN).build();
         }
 
+        // Bedingtes GET: zuerst nur die Versionsnummer ermitteln, d.h. ohne Join mit der Tabelle "adresse"
+        if (version.isPresent()) {
+            final var kundeVersion = service.findVersionById(id, user);
+            final var versionDb = "\"" + kundeVersion.version() + '"';
+            if (Objects.equals(version.get(), versionDb)) {
+                log.debug("getById: NOT_MODIFIED {}", kundeVersion);
+                return status(NOT_MODIFIED).eTag(versionDb).build();
+            }
+        }
+
         // Anwendungskern
         final var kunde = service.findById(id, user);
         log.debug("getById: {}", kunde);
-
         final var currentVersion = "\"" + kunde.getVersion() + '"';
-        if (Objects.equals(version.orElse(null), currentVersion)) {
-            return status(NOT_MODIFIED).build();
-        }
 
         final var model = kundeToModel(kunde, request);
         log.debug("getById: model={}", model);
@@ -144,7 +165,8 @@ public class KundeGetController {
     }
 
     /**
-     * Suche mit diversen Suchkriterien als Query-Parameter.
+     * Suche mit diversen Suchkriterien als Query-Parameter. Mit den Query-Parametern "size" und/oder "cursor" wird
+     * seitenweise gelesen, wobei der Link "next" den Cursor für die nächste Seite enthält.
      *
      * @param suchkriterien Query-Parameter als Map.
      * @param request Das Request-Objekt, um Links für HATEOAS zu erstellen.
@@ -159,6 +181,9 @@ public class KundeGetController {
         final HttpServletRequest request
     ) {
         log.debug("get: suchkriterien={}", suchkriterien);
+        if (suchkriterien.containsKey(CURSOR_PARAM) || suchkriterien.containsKey(SIZE_PARAM)) {
+            return getSeite(suchkriterien, request);
+        }
 
         final var baseUri = uriHelper.getBaseUri(request).toString();
         final var models = service.find(suchkriterien)
@@ -173,6 +198,54 @@ public class KundeGetController {
         return CollectionModel.of(models);
     }
 
+    private CollectionModel<? extends KundeModel> getSeite(
+        final MultiValueMap<String, String> params,
+        final HttpServletRequest request
+    ) {
+        final var suchkriterien = new LinkedMultiValueMap<>(params);
+        final var cursor = suchkriterien.remove(CURSOR_PARAM);
+        final var position = cursor == null || cursor.isEmpty()
+            ? ScrollPosition.keyset()
+            : KundeCursor.fromCursor(cursor.get(0));
+        final var sizeList = suchkriterien.remove(SIZE_PARAM);
+        final var size = sizeList == null || sizeList.isEmpty() ? 0 : parseSize(sizeList.get(0));
+        log.debug("getSeite: suchkriterien={}, position={}, size={}", suchkriterien, position, size);
+
+        final var kunden = service.find(suchkriterien, position, size);
+        final var baseUri = uriHelper.getBaseUri(request).toString();
+        final var models = kunden
+            .stream()
+            .map(kunde -> {
+                final var model = new KundeModel(kunde);
+                model.add(Link.of(baseUri + '/' + kunde.getId()));
+                return model;
+            })
+            .toList();
+        if (!kunden.hasNext()) {
+            return CollectionModel.of(models);
+        }
+
+        final var nextCursor = KundeCursor.toCursor(kunden.positionAt(kunden.size() - 1));
+        final var nextUri = UriComponentsBuilder
+            .fromUriString(baseUri)
+            .queryParams(suchkriterien)
+            .queryParam(SIZE_PARAM, kunden.size())
+            .queryParam(CURSOR_PARAM, nextCursor)
+            .encode()
+            .toUriString();
+        log.debug("getSeite: next={}", nextUri);
+        return CollectionModel.of(models, Link.of(nextUri, NEXT));
+    }
+
+    private int parseSize(final String size) {
+        try {
+            return Integer.parseInt(size);
+        } catch (final NumberFormatException e) {
+            // voreingestellte Seitengroesse
+            return 0;
+        }
+    }
+
     /**
      * Abfrage, welche Nachnamen es zu einem Präfix gibt.
      *
@@ -16,14 +16,18 @@
  */
 package com.acme.kunde.rest;
 
+import com.acme.kunde.repository.DuplicateKeys;
 import com.acme.kunde.rest.patch.KundePatcher;
 import com.acme.kunde.rest.patch.PatchOperation;
 import com.acme.kunde.security.PasswordInvalidException;
 import com.acme.kunde.security.UsernameExistsException;
+import com.acme.kunde.service.BulkCreateResult;
 import com.acme.kunde.service.ConstraintViolationsException;
 import com.acme.kunde.service.EmailExistsException;
 import com.acme.kunde.service.KundeReadService;
 import com.acme.kunde.service.KundeWriteService;
+import com.acme.kunde.service.NeuerKunde;
+import com.acme.kunde.service.TooManyKundenException;
 import com.acme.kunde.service.VersionOutdatedException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -31,10 +35,12 @@ import jakarta.servlet.http.HttpServletRequest;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -56,6 +62,7 @@ import static com.acme.kunde.rest.KundeGetController.REST_PATH;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.FORBIDDEN;
 import static org.springframework.http.HttpStatus.NO_CONTENT;
+import static org.springframework.http.HttpStatus.PAYLOAD_TOO_LARGE;
 import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
 import static org.springframework.http.HttpStatus.PRECONDITION_REQUIRED;
 import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
@@ -63,6 +70,7 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 import static org.springframework.http.ResponseEntity.badRequest;
 import static org.springframework.http.ResponseEntity.created;
 import static org.springframework.http.ResponseEntity.noContent;
+import static org.springframework.http.ResponseEntity.ok;
 import static org.springframework.http.ResponseEntity.status;
 
 /**
@@ -84,6 +92,12 @@ public class KundeWriteController {
     @SuppressWarnings("TrailingComment")
     public static final String PROBLEM_PATH = "/problem/"; //NOSONAR
 
+    /**
+     * Pfad, um viele Kunden in einem einzigen Request neu anzulegen.
+     */
+    @SuppressWarnings("TrailingComment")
+    public static final String BULK_PATH = "/bulk"; //NOSONAR
+
     private static final String VERSIONSNUMMER_FEHLT = "Versionsnummer fehlt";
 
     private final KundeWriteService service;
@@ -127,6 +141,33 @@ public class KundeWriteController {
         return created(location).build();
     }
 
+    /**
+     * Viele neue Kunde-Datensätze in einem einzigen Request anlegen.
+     *
+     * @param kundeUserDTOs Die Kundenobjekte mit den Benutzerdaten aus dem eingegangenen Request-Body.
+     * @return Response mit Statuscode 200 und dem Ergebnis für jeden einzelnen Kunden, d.h. mit der generierten ID
+     *      oder mit der Fehlermeldung
+     */
+    @PostMapping(path = BULK_PATH, consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    @Operation(summary = "Viele neue Kunden anlegen", tags = "Neuanlegen")
+    @ApiResponse(responseCode = "200", description = "Ergebnis für jeden einzelnen Kunden")
+    @ApiResponse(responseCode = "400", description = "Syntaktische Fehler im Request-Body")
+    @ApiResponse(responseCode = "413", description = "Zu viele Kunden in einem Request")
+    ResponseEntity<List<BulkCreateResult>> postBulk(@RequestBody final List<KundeUserDTO> kundeUserDTOs) {
+        log.debug("postBulk: {} Kunden", kundeUserDTOs.size());
+        final var neueKunden = kundeUserDTOs.stream()
+            .map(kundeUserDTO -> {
+                final var kundeDTO = kundeUserDTO.kundeDTO();
+                final var userDTO = kundeUserDTO.userDTO();
+                if (kundeDTO == null || userDTO == null) {
+                    return new NeuerKunde(null, null);
+                }
+                return new NeuerKunde(kundeDTO.toKunde(userDTO.username()), userDTO.toUserDetails());
+            })
+            .toList();
+        return ok(service.createAll(neueKunden));
+    }
+
     /**
      * Einen vorhandenen Kunde-Datensatz überschreiben.
      *
@@ -231,7 +272,8 @@ public class KundeWriteController {
 
         final int versionInt = getVersion(version, request);
 
-        final var kunde = readService.findById(id, user);
+        // eigenes Objekt, weil es durch die Patch-Operationen geaendert wird
+        final var kunde = readService.findByIdExclusive(id, user);
         patcher.patch(kunde, operations, request);
         log.debug("patch: {}", kunde);
 
@@ -293,6 +335,35 @@ public class KundeWriteController {
         return problemDetail;
     }
 
+    @ExceptionHandler
+    ProblemDetail onTooManyKunden(final TooManyKundenException ex, final HttpServletRequest request) {
+        log.debug("onTooManyKunden: {}", ex.getMessage());
+        final var problemDetail = ProblemDetail.forStatusAndDetail(PAYLOAD_TOO_LARGE, ex.getMessage());
+        problemDetail.setType(URI.create(PROBLEM_PATH + ProblemType.CONSTRAINTS.getValue()));
+        problemDetail.setInstance(URI.create(request.getRequestURL().toString()));
+        return problemDetail;
+    }
+
+    // Unique-Constraint in der DB, z.B. bei nebenlaeufigem Neuanlegen mit derselben Emailadresse
+    // andere Verletzungen wie Foreign Key, NOT NULL oder CHECK werden weitergeworfen und fuehren zu 500
+    @ExceptionHandler
+    ProblemDetail onDataIntegrityViolation(
+        final DataIntegrityViolationException ex,
+        final HttpServletRequest request
+    ) {
+        log.debug("onDataIntegrityViolation: {}", ex.getMessage());
+        if (!DuplicateKeys.isEmailOrUsername(ex)) {
+            throw ex;
+        }
+        final var problemDetail = ProblemDetail.forStatusAndDetail(
+            UNPROCESSABLE_ENTITY,
+            "Die Emailadresse oder der Benutzername existiert bereits"
+        );
+        problemDetail.setType(URI.create(PROBLEM_PATH + ProblemType.CONSTRAINTS.getValue()));
+        problemDetail.setInstance(URI.create(request.getRequestURL().toString()));
+        return problemDetail;
+    }
+
     @ExceptionHandler
     ProblemDetail onUsernameExists(
         final UsernameExistsException ex,
@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.context.request.RequestContextHolder;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.springframework.web.context.request.RequestAttributes.SCOPE_REQUEST;
+
+/**
+ * PasswordEncoder, der Argon2 in einem eigenen, begrenzten Pool von Plattform-Threads ausführt ("Bulkhead").
+ * Argon2 ist CPU- und speicherintensiv: mit Virtual Threads würden beliebig viele Aufrufe gleichzeitig rechnen und
+ * sich gegenseitig verlangsamen. Stattdessen gibt es höchstens so viele Threads wie CPU-Kerne und eine begrenzte
+ * Warteschlange. Ist die Warteschlange voll, wird sofort eine {@linkplain PasswordHashingBusyException} geworfen.
+ * <p>
+ * Die Metriken "executor.queued" (Warteschlangenlänge), "executor.idle" (Wartezeit in der Warteschlange),
+ * "executor.active" usw. haben das Tag "name=password.hashing". Abgelehnte Aufrufe zählt
+ * "password.hashing.rejected".
+ * </p>
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Slf4j
+public final class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+    private static final String METRICS_NAME = "password.hashing";
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    /**
+     * Request-Attribut mit der Dauer der Passwort-Überprüfung in Nanosekunden, z.B. bei Basic Authentication, damit
+     * sie von der Latenz lesender und schreibender Requests abgezogen werden kann.
+     */
+    public static final String HASHING_NANOS_ATTR = BoundedPasswordEncoder.class.getName() + ".hashingNanos";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService monitoredPool;
+    private final Counter rejected;
+    private final Duration retryAfter;
+
+    /**
+     * Konstruktor mit dem eigentlichen PasswordEncoder und der Größe von Thread-Pool und Warteschlange.
+     *
+     * @param delegate Der eigentliche PasswordEncoder, z.B. für Argon2
+     * @param threads Anzahl der Threads oder 0 für die Anzahl der CPU-Kerne
+     * @param queueCapacity Maximale Anzahl wartender Aufrufe
+     * @param retryAfter Zeitspanne für den Response-Header "Retry-After" bei einer Ablehnung
+     * @param meterRegistry Registry für die Metriken des Thread-Pools
+     */
+    public BoundedPasswordEncoder(
+        final PasswordEncoder delegate,
+        final int threads,
+        final int queueCapacity,
+        final Duration retryAfter,
+        final MeterRegistry meterRegistry
+    ) {
+        this.delegate = delegate;
+        this.retryAfter = retryAfter;
+        final var poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        final var threadFactory = new CustomizableThreadFactory("argon2-");
+        threadFactory.setDaemon(true);
+        pool = new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            0L,
+            MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            threadFactory,
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        monitoredPool = ExecutorServiceMetrics.monitor(meterRegistry, pool, METRICS_NAME);
+        rejected = Counter.builder(METRICS_NAME + ".rejected")
+            .description("Wegen voller Warteschlange abgelehnte Passwort-Hashes")
+            .register(meterRegistry);
+        log.info("BoundedPasswordEncoder: threads={}, queueCapacity={}", poolSize, queueCapacity);
+    }
+
+    @Override
+    public String encode(final CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(final CharSequence rawPassword, final String encodedPassword) {
+        final var start = System.nanoTime();
+        try {
+            return execute(() -> delegate.matches(rawPassword, encodedPassword));
+        } finally {
+            addHashingNanos(System.nanoTime() - start);
+        }
+    }
+
+    // kein Hashing, deshalb ohne Thread-Pool
+    @Override
+    public boolean upgradeEncoding(final String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Den Thread-Pool beim Herunterfahren beenden.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, SECONDS)) {
+                pool.shutdownNow();
+            }
+        } catch (final InterruptedException ex) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <T> T execute(final Callable<T> task) {
+        final Future<T> future;
+        try {
+            future = monitoredPool.submit(task);
+        } catch (final RejectedExecutionException ex) {
+            rejected.increment();
+            log.warn("execute: Warteschlange voll ({} Aufrufe)", pool.getQueue().size());
+            throw new PasswordHashingBusyException(retryAfter);
+        }
+
+        try {
+            return future.get();
+        } catch (final ExecutionException ex) {
+            final var cause = ex.getCause();
+            if (cause instanceof final RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof final Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (final InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    // nur im Thread des Requests, z.B. bei Basic Authentication durch Spring Security
+    private static void addHashingNanos(final long nanos) {
+        final var attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        final var bisher = attributes.getAttribute(HASHING_NANOS_ATTR, SCOPE_REQUEST) instanceof final Long value
+            ? value
+            : 0L;
+        attributes.setAttribute(HASHING_NANOS_ATTR, bisher + nanos, SCOPE_REQUEST);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * AuthenticationProvider für Basic Authentication, der bereits überprüfte Benutzerdaten aus einem Cache verwendet.
+ * Nur bei einem "Cache Miss" wird an DaoAuthenticationProvider delegiert, d.h. an CustomUserDetailsService und an den
+ * PasswordEncoder mit Argon2.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+@Slf4j
+class CachingAuthenticationProvider implements AuthenticationProvider {
+    private final CredentialCache cache;
+    private final DaoAuthenticationProvider delegate;
+
+    CachingAuthenticationProvider(
+        final CredentialCache cache,
+        final CustomUserDetailsService userDetailsService,
+        final PasswordEncoder passwordEncoder
+    ) {
+        this.cache = cache;
+        delegate = new DaoAuthenticationProvider(passwordEncoder);
+        delegate.setUserDetailsService(userDetailsService);
+    }
+
+    @Override
+    public Authentication authenticate(final Authentication authentication) {
+        final var credentials = authentication.getCredentials();
+        if (credentials == null) {
+            return delegate.authenticate(authentication);
+        }
+
+        final var username = authentication.getName();
+        final var password = credentials.toString();
+        final var userOpt = cache.get(username, password);
+        if (userOpt.isPresent()) {
+            final var user = userOpt.get();
+            log.trace("authenticate: Cache Hit fuer username={}", username);
+            final var result = UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+
+        final var result = delegate.authenticate(authentication);
+        // Abspeichern, bevor ProviderManager die Credentials loescht
+        if (result.getPrincipal() instanceof final UserDetails user) {
+            cache.put(user, password);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(final Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+}
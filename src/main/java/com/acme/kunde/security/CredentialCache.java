@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.security;
+
+import com.acme.kunde.AuthCacheProps;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Locale.GERMAN;
+
+/**
+ * Cache für bereits überprüfte Kombinationen aus Benutzername und Passwort, damit bei Basic Authentication nicht bei
+ * jedem Request die DB abgefragt und Argon2 ausgeführt werden muss. Als Schlüssel dient der Benutzername in
+ * Kleinschreibung zusammen mit einem HMAC des Passworts, d.h. das Passwort wird nicht im Klartext gespeichert. Der
+ * Schlüssel für den HMAC wird bei jedem Start neu erzeugt und verlässt den Hauptspeicher nicht.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+@Slf4j
+class CredentialCache {
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int HMAC_KEY_LENGTH = 32;
+    private static final String METRICS_NAME = "credentials";
+
+    private final SecretKeySpec hmacKey;
+    private final Cache<CacheKey, List<SimpleGrantedAuthority>> cache;
+
+    CredentialCache(final AuthCacheProps props, final MeterRegistry meterRegistry) {
+        final var keyBytes = new byte[HMAC_KEY_LENGTH];
+        new SecureRandom().nextBytes(keyBytes);
+        hmacKey = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+
+        cache = Caffeine.newBuilder()
+            .maximumSize(props.maxSize())
+            .expireAfterWrite(props.ttl())
+            .recordStats()
+            .build();
+        // Metriken "cache.gets" mit result=hit|miss, "cache.size", "cache.evictions", ...
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, METRICS_NAME);
+        log.debug("CredentialCache: maxSize={}, ttl={}", props.maxSize(), props.ttl());
+    }
+
+    /**
+     * Zu Benutzername und Passwort die bereits überprüften Benutzerdaten ermitteln.
+     *
+     * @param username Benutzername
+     * @param password Passwort im Klartext, das nur für die Berechnung des HMAC verwendet wird
+     * @return Die Benutzerdaten ohne Passwort oder ein leeres Optional
+     */
+    Optional<UserDetails> get(final String username, final CharSequence password) {
+        final var key = toKey(username, password);
+        final var authorities = cache.getIfPresent(key);
+        if (authorities == null) {
+            return Optional.empty();
+        }
+        log.trace("get: username={}, authorities={}", username, authorities);
+        // wie in der DB in Kleinschreibung, unabhaengig von der Schreibweise beim Login
+        return Optional.of(new CustomUser(key.username(), "", authorities));
+    }
+
+    /**
+     * Erfolgreich überprüfte Benutzerdaten im Cache ablegen.
+     *
+     * @param user Die Benutzerdaten, von denen nur Benutzername und Rollen abgelegt werden
+     * @param password Das überprüfte Passwort im Klartext, das nur für die Berechnung des HMAC verwendet wird
+     */
+    void put(final UserDetails user, final CharSequence password) {
+        final var username = user.getUsername();
+        final var authorities = toAuthorities(user.getAuthorities());
+        cache.put(toKey(username, password), authorities);
+        log.trace("put: username={}, authorities={}", username, authorities);
+    }
+
+    /**
+     * Alle Einträge zu einem Benutzernamen entfernen, z.B. weil sich Passwort oder Rollen geändert haben.
+     *
+     * @param username Benutzername
+     */
+    void invalidate(final String username) {
+        log.debug("invalidate: username={}", username);
+        final var usernameLower = username.toLowerCase(GERMAN);
+        cache.asMap().keySet().removeIf(key -> key.username().equals(usernameLower));
+    }
+
+    private CacheKey toKey(final String username, final CharSequence password) {
+        final Mac mac;
+        try {
+            // Mac ist nicht thread-safe und wird deshalb pro Aufruf erzeugt
+            mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+        } catch (final GeneralSecurityException ex) {
+            throw new IllegalStateException(ex);
+        }
+        final var digest = mac.doFinal(password.toString().getBytes(UTF_8));
+        // Benutzernamen werden in Kleinschreibung abgespeichert, siehe CustomUserDetailsService
+        return new CacheKey(username.toLowerCase(GERMAN), HexFormat.of().formatHex(digest));
+    }
+
+    private List<SimpleGrantedAuthority> toAuthorities(final Collection<? extends GrantedAuthority> authorities) {
+        return authorities.stream()
+            .map(authority -> new SimpleGrantedAuthority(authority.getAuthority()))
+            .toList();
+    }
+
+    private record CacheKey(String username, String digest) {
+    }
+}
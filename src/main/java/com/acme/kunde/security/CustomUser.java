@@ -22,7 +22,6 @@ import lombok.ToString;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import static com.acme.kunde.security.Rolle.KUNDE;
-import static com.acme.kunde.security.Rolle.ROLE_PREFIX;
 
 /**
  * Klasse für Benutzerdaten für Spring Security.
@@ -38,7 +37,7 @@ public class CustomUser extends User {
      * @param password Passwort
      */
     public CustomUser(final String username, final String password) {
-        super(username, password, List.of(new SimpleGrantedAuthority(ROLE_PREFIX + KUNDE)));
+        super(username, password, List.of(new SimpleGrantedAuthority(KUNDE.getAuthority())));
     }
 
     /**
@@ -16,9 +16,15 @@
  */
 package com.acme.kunde.security;
 
+import com.acme.kunde.MethodTimer;
+import io.micrometer.core.instrument.Tags;
+import java.util.Collection;
+import java.util.Optional;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -26,7 +32,8 @@ import org.springframework.stereotype.Service;
 import static java.util.Locale.GERMAN;
 
 /**
- * Service-Klasse, um Benutzerkennungen zu suchen und neu anzulegen.
+ * Service-Klasse, um Benutzerkennungen zu suchen und neu anzulegen. Die Dauer der Methoden einschließlich Hashing
+ * des Passworts wird durch den Timer "kunde.login" gemessen.
  *
  * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
  */
@@ -35,6 +42,7 @@ import static java.util.Locale.GERMAN;
 @Slf4j
 public class CustomUserDetailsService implements UserDetailsService {
     private static final int MIN_LENGTH = 8;
+    private static final String METRICS_NAME = "kunde.login";
     private static final Pattern UPPERCASE = Pattern.compile(".*[A-Z].*"); // NOSONAR
     private static final Pattern LOWERCASE = Pattern.compile(".*[a-z].*"); // NOSONAR
     private static final Pattern NUMBERS = Pattern.compile(".*\\d.*"); // NOSONAR
@@ -43,6 +51,7 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     private final LoginRepository repo;
     private final PasswordEncoder passwordEncoder;
+    private final MethodTimer timer;
 
     /**
      * Zu einem gegebenen Username wird der zugehörige User gesucht.
@@ -53,7 +62,13 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Override
     public UserDetails loadUserByUsername(final String username) {
         log.debug("findByUsername: {}", username);
-        final var loginOpt = repo.findByUsername(username);
+        final var loginOpt = timer.recordLookup(
+            METRICS_NAME,
+            "loadUserByUsername",
+            Tags.empty(),
+            () -> repo.findByUsername(username),
+            Optional::isPresent
+        );
         if (loginOpt.isEmpty()) {
             //noinspection ReturnOfNull
             return null;
@@ -64,33 +79,58 @@ public class CustomUserDetailsService implements UserDetailsService {
     }
 
     /**
-     * Ein Login-Objekt bauen und in der DB abspeichern.
+     * Überprüfen, ob es den Benutzernamen bereits gibt. Die Überprüfung ist unabhängig vom Bauen des Login-Objekts
+     * und kann deshalb parallel dazu erfolgen.
      *
-     * @param user Der neu anzulegende User
-     * @return Ein neu gebautes Login-Objekt
-     * @throws PasswordInvalidException falls das Passwort ungültig ist
+     * @param username Der zu überprüfende Benutzername
      * @throws UsernameExistsException falls der Benutzername bereits existiert
      */
-    public Login save(final UserDetails user) {
-        final var login = userDetailsToLogin(user);
-        repo.save(login);
-        return login;
+    public void checkUsername(final String username) {
+        timer.record(METRICS_NAME, "checkUsername", Tags.empty(), () -> {
+            log.debug("checkUsername: {}", username);
+            if (repo.existsByUsername(username)) {
+                throw new UsernameExistsException(username);
+            }
+        });
     }
 
-    private Login userDetailsToLogin(final UserDetails user) {
-        log.debug("userDetailsToLogin: {}", user);
+    /**
+     * Ein bereits gebautes Login-Objekt in der DB abspeichern.
+     *
+     * @param login Das mit {@link #toLogin(UserDetails)} gebaute Login-Objekt
+     * @return Das abgespeicherte Login-Objekt
+     */
+    public Login save(final Login login) {
+        return timer.record(METRICS_NAME, "save", Tags.empty(), () -> repo.save(login));
+    }
 
+    /**
+     * Die bereits vorhandenen Benutzernamen aus einer Menge von Benutzernamen mit einer einzigen Abfrage ermitteln.
+     *
+     * @param usernames Die zu überprüfenden Benutzernamen
+     * @return Die bereits vorhandenen Benutzernamen in Kleinschreibung
+     */
+    public Collection<String> findUsernames(final Collection<String> usernames) {
+        final var usernamesLower = usernames.stream()
+            .map(username -> username.toLowerCase(GERMAN))
+            .collect(Collectors.toSet());
+        return timer.record(METRICS_NAME, "findUsernames", Tags.empty(), () -> repo.findUsernames(usernamesLower));
+    }
+
+    /**
+     * Ein Login-Objekt mit dem verschlüsselten Passwort bauen, ohne es abzuspeichern.
+     *
+     * @param user Der neu anzulegende User
+     * @return Ein neu gebautes Login-Objekt
+     * @throws PasswordInvalidException falls das Passwort ungültig ist
+     */
+    public Login toLogin(final UserDetails user) {
         final var password = user.getPassword();
         if (!checkPassword(password)) {
             throw new PasswordInvalidException(password);
         }
 
         final var username = user.getUsername();
-        final var isUsernameExisting = repo.existsByUsername(username);
-        if (isUsernameExisting) {
-            throw new UsernameExistsException(username);
-        }
-
         // Die Account-Informationen des Kunden transformieren: in Account-Informationen fuer die Security-Komponente
         final var login = new Login();
         login.setUsername(username.toLowerCase(GERMAN));
@@ -100,22 +140,18 @@ public class CustomUserDetailsService implements UserDetailsService {
 
         final var rollen = user.getAuthorities()
             .stream()
-            .map(grantedAuthority -> {
-                final var rolleStr = grantedAuthority
-                    .getAuthority()
-                    .substring(Rolle.ROLE_PREFIX.length());
-                return Rolle.valueOf(rolleStr);
-            })
+            .map(GrantedAuthority::getAuthority)
+            .map(Rolle::ofAuthority)
             .toList();
         login.setRollen(rollen);
 
-        log.trace("userDetailsToLogin: login = {}", login);
+        log.trace("toLogin: login = {}", login);
         return login;
     }
 
     // https://github.com/making/yavi/blob/develop/src/main/java/am/ik/yavi/constraint/password/PasswordPolicy.java
     @SuppressWarnings("ReturnCount")
-    private boolean checkPassword(final CharSequence password) {
+    boolean checkPassword(final CharSequence password) {
         if (password.length() < MIN_LENGTH) {
             return false;
         }
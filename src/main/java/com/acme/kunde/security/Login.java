@@ -16,9 +16,11 @@
  */
 package com.acme.kunde.security;
 
+import com.acme.kunde.entity.UuidV7;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
 import jakarta.persistence.PostLoad;
 import jakarta.persistence.PrePersist;
@@ -32,9 +34,15 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import static com.acme.kunde.security.Login.CACHE_REGION;
+import static com.acme.kunde.security.Login.USERNAME_CACHE_REGION;
 import static java.util.Collections.emptyList;
+import static org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE;
 
 /**
  * Entity-Klasse, um Benutzerkennungen bestehend aus Benutzername,
@@ -45,6 +53,10 @@ import static java.util.Collections.emptyList;
  */
 @Entity
 @Table(name = "login")
+@Cacheable
+@Cache(usage = READ_WRITE, region = CACHE_REGION)
+@NaturalIdCache(region = USERNAME_CACHE_REGION)
+@EntityListeners(LoginListener.class)
 @NoArgsConstructor
 @EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = false)
 @Getter
@@ -52,13 +64,24 @@ import static java.util.Collections.emptyList;
 @ToString
 @SuppressWarnings("MissingSummary")
 public class Login {
+    /**
+     * Region im 2nd Level Cache für Benutzerkennungen.
+     */
+    public static final String CACHE_REGION = "login";
+
+    /**
+     * Region im 2nd Level Cache für die Zuordnung des Benutzernamens als Natural ID zur ID.
+     */
+    public static final String USERNAME_CACHE_REGION = "login-username";
+
     @Id
-    @GeneratedValue
+    @UuidV7
     // Oracle: https://in.relation.to/2022/05/12/orm-uuid-mapping
     // @org.hibernate.annotations.JdbcTypeCode(org.hibernate.type.SqlTypes.CHAR)
     @EqualsAndHashCode.Include
     private UUID id;
 
+    @NaturalId
     private String username;
 
     private String password;
@@ -78,7 +101,7 @@ public class Login {
         final List<SimpleGrantedAuthority> authorities = rollen == null || rollen.isEmpty()
             ? emptyList()
             : rollen.stream()
-                .map(rolle -> new SimpleGrantedAuthority(Rolle.ROLE_PREFIX + rolle))
+                .map(rolle -> new SimpleGrantedAuthority(rolle.getAuthority()))
                 .toList();
         return new CustomUser(username, password, authorities);
     }
@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.security;
+
+import java.util.Optional;
+
+/**
+ * Repository-Fragment, um Benutzerkennungen über den Benutzernamen als Natural ID zu finden, so dass sie aus dem
+ * 2nd Level Cache gelesen werden können.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+public interface LoginNaturalIdRepository {
+    /**
+     * Zu einem gegebenen Username wird das zugehörige Login-Objekt gesucht.
+     *
+     * @param username Username des gesuchten Login-Objekts
+     * @return Das gesuchte Login-Objekt in einem ggf. leeren Optional
+     */
+    Optional<Login> findByUsername(String username);
+}
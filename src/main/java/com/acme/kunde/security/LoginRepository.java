@@ -16,9 +16,11 @@
  */
 package com.acme.kunde.security;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -27,15 +29,7 @@ import org.springframework.stereotype.Repository;
  * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
  */
 @Repository
-public interface LoginRepository extends JpaRepository<Login, UUID> {
-    /**
-     * Zu einem gegebenen Username wird das zugehörige Login-Objekt gesucht.
-     *
-     * @param username Username des gesuchten Login-Objekts
-     * @return Das gesuchte Login-Objekt in einem ggf. leeren Optional
-     */
-    Optional<Login> findByUsername(String username);
-
+public interface LoginRepository extends JpaRepository<Login, UUID>, LoginNaturalIdRepository {
     /**
      * Prüfung, ob es bereits einen User mit gegebenem Benutzernamen gibt.
      *
@@ -44,4 +38,13 @@ public interface LoginRepository extends JpaRepository<Login, UUID> {
      */
     @SuppressWarnings("BooleanMethodNameMustStartWithQuestion")
     boolean existsByUsername(String username);
+
+    /**
+     * Die bereits vorhandenen Benutzernamen aus einer Menge von Benutzernamen ermitteln.
+     *
+     * @param usernames Die zu überprüfenden Benutzernamen.
+     * @return Die bereits vorhandenen Benutzernamen.
+     */
+    @Query("SELECT l.username FROM Login l WHERE l.username IN :usernames")
+    List<String> findUsernames(Collection<String> usernames);
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
+import static jakarta.servlet.http.HttpServletResponse.SC_SERVICE_UNAVAILABLE;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+
+/**
+ * EntryPoint für Basic Authentication: Ist das Hashing des Passworts wegen Überlast abgelehnt worden, wird mit dem
+ * Statuscode 503 und dem Header "Retry-After" geantwortet. Ansonsten wie bisher mit 401 und "WWW-Authenticate".
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Slf4j
+public final class PasswordHashingBusyEntryPoint implements AuthenticationEntryPoint {
+    private final BasicAuthenticationEntryPoint delegate = new BasicAuthenticationEntryPoint();
+
+    /**
+     * Konstruktor mit dem Realm wie bei der Default-Konfiguration von Basic Authentication.
+     */
+    public PasswordHashingBusyEntryPoint() {
+        delegate.setRealmName("Realm");
+    }
+
+    @Override
+    public void commence(
+        final HttpServletRequest request,
+        final HttpServletResponse response,
+        final AuthenticationException authException
+    ) throws IOException {
+        // DaoAuthenticationProvider verpackt Exceptions aus retrieveUser() in InternalAuthenticationServiceException
+        final var busy = authException instanceof final PasswordHashingBusyException ex
+            ? ex
+            : authException.getCause() instanceof final PasswordHashingBusyException ex ? ex : null;
+        if (busy == null) {
+            delegate.commence(request, response, authException);
+            return;
+        }
+        log.debug("commence: {}", busy.getMessage());
+        response.setHeader(RETRY_AFTER, busy.getRetryAfterSeconds());
+        response.sendError(SC_SERVICE_UNAVAILABLE);
+    }
+}
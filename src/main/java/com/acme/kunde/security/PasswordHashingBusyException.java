@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.security;
+
+import java.time.Duration;
+import lombok.Getter;
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * Exception, falls alle Threads für Argon2 belegt sind und die Warteschlange voll ist. Als AuthenticationException
+ * führt sie bei Basic Authentication nicht zum Statuscode 401, sondern durch
+ * {@linkplain PasswordHashingBusyEntryPoint} zum Statuscode 503.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Getter
+public class PasswordHashingBusyException extends AuthenticationServiceException {
+    private final Duration retryAfter;
+
+    PasswordHashingBusyException(final Duration retryAfter) {
+        super("Zu viele gleichzeitige Passwort-Ueberpruefungen");
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Wert für den Response-Header "Retry-After" in ganzen Sekunden, mindestens 1.
+     *
+     * @return Anzahl Sekunden als String
+     */
+    public String getRetryAfterSeconds() {
+        return String.valueOf(Math.max(1L, retryAfter.toSeconds()));
+    }
+}
@@ -16,6 +16,11 @@
  */
 package com.acme.kunde.security;
 
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 /**
  * Singleton für verfügbare Rollen als Strings für das Spring-Interface GrantedAuthority.
  *
@@ -42,10 +47,41 @@ public enum Rolle {
      */
     public static final String ROLE_PREFIX = "ROLE_";
 
+    // Lookup-Tabelle "ROLE_xxx" -> Rolle, damit pro Request weder substring() noch valueOf() benoetigt werden
+    private static final Map<String, Rolle> AUTHORITIES = Stream.of(values())
+        .collect(Collectors.toUnmodifiableMap(Rolle::getAuthority, Function.identity()));
+
     @SuppressWarnings({"unused", "FieldCanBeLocal"})
     private final String value;
 
+    private final String authority;
+
     Rolle(final String value) {
         this.value = value;
+        authority = ROLE_PREFIX + value;
+    }
+
+    /**
+     * Der Name der Rolle gemäß Spring Security, d.h. mit dem Präfix "ROLE_".
+     *
+     * @return Der Name der Rolle mit Präfix für GrantedAuthority.
+     */
+    public String getAuthority() {
+        return authority;
+    }
+
+    /**
+     * Konvertierung eines Strings aus GrantedAuthority, d.h. mit dem Präfix "ROLE_", in einen Enum-Wert.
+     *
+     * @param authority Der String gemäß Spring Security, z.B. "ROLE_ADMIN".
+     * @return Passender Enum-Wert.
+     * @throws IllegalArgumentException Falls es zum String keine Rolle gibt.
+     */
+    public static Rolle ofAuthority(final String authority) {
+        final var rolle = AUTHORITIES.get(authority);
+        if (rolle == null) {
+            throw new IllegalArgumentException("Keine Rolle zu " + authority);
+        }
+        return rolle;
     }
 }
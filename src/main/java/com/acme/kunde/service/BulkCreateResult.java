@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.service;
+
+import java.util.UUID;
+
+/**
+ * Ergebnis für einen einzelnen Kunden beim Neuanlegen vieler Kunden.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param index Die Position des Kunden in der Liste der neu anzulegenden Kunden
+ * @param id Die generierte ID oder null, falls der Kunde nicht angelegt wurde
+ * @param fehler Die Fehlermeldung oder null, falls der Kunde angelegt wurde
+ */
+public record BulkCreateResult(int index, UUID id, String fehler) {
+    static BulkCreateResult created(final int index, final UUID id) {
+        return new BulkCreateResult(index, id, null);
+    }
+
+    static BulkCreateResult failed(final int index, final String fehler) {
+        return new BulkCreateResult(index, null, fehler);
+    }
+}
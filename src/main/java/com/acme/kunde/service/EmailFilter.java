@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.service;
+
+import com.acme.kunde.EmailFilterProps;
+import com.acme.kunde.repository.KundeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import static java.util.Locale.ROOT;
+
+/**
+ * Counting Bloom Filter für die Emailadressen der vorhandenen Kunden im Hauptspeicher, damit beim Neuanlegen und
+ * Ändern nur dann in der DB nachgeschaut wird, wenn die Emailadresse vorhanden sein <em>könnte</em>. Ein negatives
+ * Ergebnis des Filters ist sicher, ein positives wird mit der DB überprüft. Der Unique-Constraint in der DB bleibt die
+ * letzte Instanz, z.B. bei nebenläufigem Neuanlegen mit derselben Emailadresse.
+ * <p>
+ * Statt einzelner Bits gibt es Zähler, damit Emailadressen beim Ändern und Löschen wieder entfernt werden können.
+ * Neue Emailadressen werden sofort eingetragen, damit sie von nebenläufigen Transaktionen bereits vor dem Commit
+ * berücksichtigt werden; bei einem Rollback bleibt lediglich ein zusätzliches falsch-positives Ergebnis. Entfernt
+ * wird erst nach dem Commit.
+ * </p>
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+@Slf4j
+class EmailFilter {
+    private static final String METRICS_NAME = "kunde.email.filter";
+    private static final String RESULT_TAG = "result";
+    // Zaehler sind gesaettigt, damit es keinen Ueberlauf gibt
+    private static final byte MAX_COUNT = Byte.MAX_VALUE;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final KundeRepository repo;
+    private final byte[] counters;
+    private final int hashCount;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    private final Counter negativeCounter;
+    private final Counter truePositiveCounter;
+    private final Counter falsePositiveCounter;
+
+    EmailFilter(final KundeRepository repo, final EmailFilterProps props, final MeterRegistry meterRegistry) {
+        this.repo = repo;
+
+        // m = -n ln(p) / ln(2)^2 und k = m/n ln(2)
+        final double n = Math.max(props.expectedInsertions(), 1);
+        final var ln2 = Math.log(2);
+        final var size = (int) Math.min(Math.ceil(-n * Math.log(props.falsePositiveRate()) / (ln2 * ln2)),
+            Integer.MAX_VALUE - 8);
+        counters = new byte[Math.max(size, Long.SIZE)];
+        hashCount = Math.max((int) Math.round(counters.length / n * ln2), 1);
+        log.debug("EmailFilter: counters={}, hashCount={}", counters.length, hashCount);
+
+        // Metrik "kunde.email.filter" mit result=negative|true_positive|false_positive
+        negativeCounter = Counter.builder(METRICS_NAME)
+            .description("Ergebnisse des Filters fuer Emailadressen")
+            .tag(RESULT_TAG, "negative")
+            .register(meterRegistry);
+        truePositiveCounter = Counter.builder(METRICS_NAME)
+            .description("Ergebnisse des Filters fuer Emailadressen")
+            .tag(RESULT_TAG, "true_positive")
+            .register(meterRegistry);
+        falsePositiveCounter = Counter.builder(METRICS_NAME)
+            .description("Ergebnisse des Filters fuer Emailadressen")
+            .tag(RESULT_TAG, "false_positive")
+            .register(meterRegistry);
+        // Anteil der falsch-positiven Ergebnisse an allen Abfragen zu nicht-vorhandenen Emailadressen
+        Gauge.builder(METRICS_NAME + ".false.positive.rate", this, EmailFilter::falsePositiveRate)
+            .description("Beobachtete Rate der falsch-positiven Ergebnisse des Filters fuer Emailadressen")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Den Filter beim Start der Anwendung aus der DB aufbauen. Bis dahin wird immer in der DB nachgeschaut.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    void rebuild() {
+        try (var emails = repo.findAllEmails()) {
+            emails.forEach(this::put);
+        }
+        ready = true;
+        log.info("rebuild: Filter fuer Emailadressen aufgebaut");
+    }
+
+    /**
+     * Abfrage, ob es einen Kunden mit der Emailadresse gibt. Nur bei einem positiven Ergebnis des Filters wird in der
+     * DB nachgeschaut.
+     *
+     * @param email Die Emailadresse
+     * @return true, falls es einen Kunden mit der Emailadresse gibt
+     */
+    @SuppressWarnings("BooleanMethodNameMustStartWithQuestion")
+    boolean exists(final String email) {
+        if (ready && !mightContain(email)) {
+            negativeCounter.increment();
+            return false;
+        }
+
+        final var exists = repo.existsByEmail(email);
+        if (ready) {
+            (exists ? truePositiveCounter : falsePositiveCounter).increment();
+        }
+        return exists;
+    }
+
+    /**
+     * Eine neue Emailadresse in den Filter eintragen.
+     *
+     * @param email Die Emailadresse
+     */
+    void put(final String email) {
+        final var indexes = indexes(email);
+        lock.writeLock().lock();
+        try {
+            for (final var index : indexes) {
+                if (counters[index] < MAX_COUNT) {
+                    counters[index]++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Die bisherige Emailadresse nach einer erfolgreichen Transaktion aus dem Filter entfernen.
+     *
+     * @param event Event mit der bisherigen Emailadresse
+     */
+    @TransactionalEventListener
+    void onEmailRemoved(final EmailRemovedEvent event) {
+        log.trace("onEmailRemoved: {}", event);
+        if (!ready) {
+            // waehrend des Aufbaus bleibt die Emailadresse ggf. als falsch-positives Ergebnis im Filter
+            return;
+        }
+        final var indexes = indexes(event.email());
+        lock.writeLock().lock();
+        try {
+            for (final var index : indexes) {
+                // ein gesaettigter Zaehler bleibt, weil die tatsaechliche Anzahl unbekannt ist
+                if (counters[index] > 0 && counters[index] < MAX_COUNT) {
+                    counters[index]--;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean mightContain(final String email) {
+        final var indexes = indexes(email);
+        lock.readLock().lock();
+        try {
+            for (final var index : indexes) {
+                if (counters[index] == 0) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Double Hashing nach Kirsch und Mitzenmacher: h1 + i * h2 aus einem 64-Bit-Hashwert
+    private int[] indexes(final String email) {
+        final var hash = hash(email.toLowerCase(ROOT));
+        final var h1 = (int) hash;
+        final var h2 = (int) (hash >>> Integer.SIZE);
+        final var result = new int[hashCount];
+        for (int i = 0; i < hashCount; i++) {
+            var combined = h1 + i * h2;
+            if (combined < 0) {
+                combined = ~combined;
+            }
+            result[i] = combined % counters.length;
+        }
+        return result;
+    }
+
+    // FNV-1a mit dem Finalizer von MurmurHash3 fuer eine bessere Verteilung
+    private static long hash(final String key) {
+        var hash = FNV_OFFSET;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb93fe53ec185L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private double falsePositiveRate() {
+        final var falsePositives = falsePositiveCounter.count();
+        final var total = falsePositives + negativeCounter.count();
+        return total == 0 ? 0 : falsePositives / total;
+    }
+}
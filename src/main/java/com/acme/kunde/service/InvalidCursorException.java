@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.service;
+
+import lombok.Getter;
+
+/**
+ * Exception, falls ein Cursor für das seitenweise Lesen ungültig ist.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Getter
+public class InvalidCursorException extends RuntimeException {
+    /**
+     * Der ungültige Cursor.
+     */
+    private final String cursor;
+
+    InvalidCursorException(final String cursor) {
+        super("Ungueltiger Cursor: " + cursor);
+        this.cursor = cursor;
+    }
+
+    InvalidCursorException(final String cursor, final Throwable cause) {
+        super("Ungueltiger Cursor: " + cursor, cause);
+        this.cursor = cursor;
+    }
+}
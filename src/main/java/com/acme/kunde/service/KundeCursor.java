@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.service;
+
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.UUID;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Konvertierung zwischen einer Keyset-Position, d.h. Nachname und ID des letzten gelesenen Kunden, und einem Cursor als
+ * URL-sicherem String für REST und GraphQL.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+public final class KundeCursor {
+    /**
+     * Attribut "nachname" für die Sortierung und die Keyset-Position.
+     */
+    public static final String NACHNAME = "nachname";
+
+    /**
+     * Attribut "id" für die Sortierung und die Keyset-Position.
+     */
+    public static final String ID = "id";
+
+    private static final int UUID_LENGTH = 36;
+    private static final char SEPARATOR = ':';
+
+    private KundeCursor() {
+    }
+
+    /**
+     * Eine Keyset-Position in einen Cursor konvertieren.
+     *
+     * @param position Die Keyset-Position mit Nachname und ID
+     * @return Der Cursor als Base64-String
+     * @throws InvalidCursorException Falls es keine Keyset-Position mit Nachname und ID ist
+     */
+    public static String toCursor(final ScrollPosition position) {
+        if (!(position instanceof final KeysetScrollPosition keyset) ||
+            !(keyset.getKeys().get(ID) instanceof final UUID id) ||
+            !(keyset.getKeys().get(NACHNAME) instanceof final String nachname)) {
+            throw new InvalidCursorException(String.valueOf(position));
+        }
+        final var cursor = id.toString() + SEPARATOR + nachname;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(UTF_8));
+    }
+
+    /**
+     * Einen Cursor in eine Keyset-Position für das Vorwärtsblättern konvertieren.
+     *
+     * @param cursor Der Cursor als Base64-String
+     * @return Die Keyset-Position mit Nachname und ID
+     * @throws InvalidCursorException Falls der Cursor nicht dekodiert werden kann
+     */
+    public static KeysetScrollPosition fromCursor(final String cursor) {
+        final String decoded;
+        final UUID id;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), UTF_8);
+            if (decoded.length() <= UUID_LENGTH || decoded.charAt(UUID_LENGTH) != SEPARATOR) {
+                throw new InvalidCursorException(cursor);
+            }
+            id = UUID.fromString(decoded.substring(0, UUID_LENGTH));
+        } catch (final IllegalArgumentException ex) {
+            throw new InvalidCursorException(cursor, ex);
+        }
+
+        final var keys = new LinkedHashMap<String, Object>(2);
+        keys.put(NACHNAME, decoded.substring(UUID_LENGTH + 1));
+        keys.put(ID, id);
+        return ScrollPosition.forward(keys);
+    }
+}
@@ -16,29 +16,54 @@
  */
 package com.acme.kunde.service;
 
+import com.acme.kunde.ExportProps;
+import com.acme.kunde.MethodTimer;
+import com.acme.kunde.PagingProps;
 import com.acme.kunde.entity.Kunde;
+import com.acme.kunde.entity.Umsatz;
+import com.acme.kunde.repository.KundeProjektion;
 import com.acme.kunde.repository.KundeRepository;
+import com.acme.kunde.repository.KundeUmsatz;
+import com.acme.kunde.repository.KundeVersion;
 import com.acme.kunde.repository.PredicateBuilder;
 import com.acme.kunde.security.Rolle;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
+import io.micrometer.core.instrument.Tags;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import static com.acme.kunde.MethodTimer.CRITERION_TAG;
 import static com.acme.kunde.security.Rolle.ADMIN;
+import static com.acme.kunde.service.KundeCursor.NACHNAME;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toList;
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
 
 /**
  * Anwendungslogik für Kunden.
  * <img src="../../../../../asciidoc/KundeReadService.svg" alt="Klassendiagramm">
  * Schreiboperationen werden mit Transaktionen durchgeführt und Lese-Operationen mit Readonly-Transaktionen:
  * <a href="https://docs.spring.io/spring-data/jpa/docs/current/reference/html/#transactions">siehe Dokumentation</a>.
+ * Die Dauer der Zugriffe wird durch den Timer "kunde.read" mit den Tags "method", "criterion", "result" und
+ * "exception" gemessen.
  *
  * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
  */
@@ -48,11 +73,27 @@ import static com.acme.kunde.security.Rolle.ADMIN;
 @RequiredArgsConstructor
 @Slf4j
 public class KundeReadService {
+    // die ID wird von Spring Data fuer eine eindeutige Keyset-Position ergaenzt
+    private static final Sort KEYSET_SORT = Sort.by(NACHNAME);
+    private static final String METRICS_NAME = "kunde.read";
+    private static final Tags ID_CRITERION = Tags.of(CRITERION_TAG, "id");
+    // nur die bekannten Suchkriterien als Tag-Werte, damit die Anzahl der Zeitreihen begrenzt bleibt
+    private static final Set<String> SUCHKRITERIEN = Set.of(
+        "nachname", "email", "kategorie", "newsletter", "geschlecht", "familienstand", "interesse", "plz", "ort"
+    );
+
     private final KundeRepository repo;
     private final PredicateBuilder predicateBuilder;
+    private final PagingProps pagingProps;
+    private final ExportProps exportProps;
+    private final NachnameIndex nachnameIndex;
+    private final KundeSingleFlight singleFlight;
+    private final MethodTimer timer;
 
     /**
-     * Einen Kunden anhand seiner ID suchen.
+     * Einen Kunden anhand seiner ID suchen. Nebenläufige Aufrufe mit derselben ID werden zu einem einzigen DB-Zugriff
+     * gebündelt und erhalten dasselbe Objekt, das deshalb nicht geändert werden darf. Die Zugriffsrechte werden für
+     * jeden Aufruf einzeln überprüft.
      *
      * @param id Die Id des gesuchten Kunden
      * @param user UserDetails-Objekt
@@ -60,30 +101,96 @@ public class KundeReadService {
      * @throws NotFoundException Falls kein Kunde gefunden wurde
      * @throws AccessForbiddenException Falls die erforderlichen Rollen nicht gegeben sind
      */
+    // ohne Transaktion, damit die gebuendelten Aufrufe beim Warten keine DB-Verbindung belegen
+    @Transactional(propagation = NOT_SUPPORTED)
     public @NonNull Kunde findById(final UUID id, final UserDetails user) {
         log.debug("findById: id={}, user={}", id, user);
-        final var kundeOpt = repo.findById(id);
-        if (kundeOpt.isPresent() && Objects.equals(kundeOpt.get().getUsername(), user.getUsername())) {
+        final var kundeOpt = timer.recordLookup(
+            METRICS_NAME,
+            "findById",
+            ID_CRITERION,
+            () -> singleFlight.findById(id),
+            Optional::isPresent
+        );
+        checkZugriff(kundeOpt.map(Kunde::getUsername).orElse(null), user);
+
+        // eigene Kundendaten oder admin: Kundendaten evtl. nicht gefunden
+        final var kunde = kundeOpt.orElseThrow(() -> new NotFoundException(id));
+        log.debug("findById: {}", kunde);
+        return kunde;
+    }
+
+    /**
+     * Einen Kunden anhand seiner ID suchen, ohne den DB-Zugriff mit nebenläufigen Aufrufen zu bündeln, weil das
+     * Ergebnis anschließend geändert wird, z.B. bei PATCH.
+     *
+     * @param id Die Id des gesuchten Kunden
+     * @param user UserDetails-Objekt
+     * @return Der gefundene Kunde
+     * @throws NotFoundException Falls kein Kunde gefunden wurde
+     * @throws AccessForbiddenException Falls die erforderlichen Rollen nicht gegeben sind
+     */
+    public @NonNull Kunde findByIdExclusive(final UUID id, final UserDetails user) {
+        log.debug("findByIdExclusive: id={}, user={}", id, user);
+        final var kundeOpt = timer.recordLookup(
+            METRICS_NAME,
+            "findByIdExclusive",
+            ID_CRITERION,
+            () -> repo.findById(id),
+            Optional::isPresent
+        );
+        checkZugriff(kundeOpt.map(Kunde::getUsername).orElse(null), user);
+
+        final var kunde = kundeOpt.orElseThrow(() -> new NotFoundException(id));
+        log.debug("findByIdExclusive: {}", kunde);
+        return kunde;
+    }
+
+    /**
+     * Nur ID, Versionsnummer und Benutzername eines Kunden anhand seiner ID suchen, z.B. für ein bedingtes GET. Die
+     * Zugriffsrechte werden genauso wie bei findById() überprüft.
+     *
+     * @param id Die Id des gesuchten Kunden
+     * @param user UserDetails-Objekt
+     * @return Die Projektion auf ID, Versionsnummer und Benutzername
+     * @throws NotFoundException Falls kein Kunde gefunden wurde
+     * @throws AccessForbiddenException Falls die erforderlichen Rollen nicht gegeben sind
+     */
+    public @NonNull KundeVersion findVersionById(final UUID id, final UserDetails user) {
+        log.debug("findVersionById: id={}, user={}", id, user);
+        final var kundeVersionOpt = timer.recordLookup(
+            METRICS_NAME,
+            "findVersionById",
+            ID_CRITERION,
+            () -> repo.findVersionById(id),
+            Optional::isPresent
+        );
+        checkZugriff(kundeVersionOpt.map(KundeVersion::username).orElse(null), user);
+
+        final var kundeVersion = kundeVersionOpt.orElseThrow(() -> new NotFoundException(id));
+        log.debug("findVersionById: {}", kundeVersion);
+        return kundeVersion;
+    }
+
+    private void checkZugriff(final String username, final UserDetails user) {
+        if (username != null && Objects.equals(username, user.getUsername())) {
             // eigene Kundendaten
-            return kundeOpt.get();
+            return;
         }
 
-        final var rollen = user
-            .getAuthorities()
-            .stream()
-            .map(GrantedAuthority::getAuthority)
-            .map(str -> str.substring(Rolle.ROLE_PREFIX.length()))
-            .map(Rolle::valueOf)
-            .toList();
-        if (!rollen.contains(ADMIN)) {
-            // nicht admin, aber keine eigenen (oder keine) Kundendaten
-            throw new AccessForbiddenException(rollen);
+        final var authorities = user.getAuthorities();
+        for (final var authority : authorities) {
+            if (ADMIN.getAuthority().equals(authority.getAuthority())) {
+                return;
+            }
         }
 
-        // admin: Kundendaten evtl. nicht gefunden
-        final var kunde = kundeOpt.orElseThrow(() -> new NotFoundException(id));
-        log.debug("findById: {}", kunde);
-        return kunde;
+        // nicht admin, aber keine eigenen (oder keine) Kundendaten
+        final var rollen = authorities.stream()
+            .map(GrantedAuthority::getAuthority)
+            .map(Rolle::ofAuthority)
+            .toList();
+        throw new AccessForbiddenException(rollen);
     }
 
     /**
@@ -93,50 +200,148 @@ public class KundeReadService {
      * @return Die gefundenen Kunden oder eine leere Liste
      * @throws NotFoundException Falls keine Kunden gefunden wurden
      */
-    @SuppressWarnings({"ReturnCount", "NestedIfDepth", "CyclomaticComplexity"})
     public @NonNull Collection<Kunde> find(@NonNull final Map<String, List<String>> suchkriterien) {
         log.debug("find: suchkriterien={}", suchkriterien);
+        final var kunden = timer.recordLookup(
+            METRICS_NAME,
+            "find",
+            criterion(suchkriterien),
+            () -> findKunden(suchkriterien),
+            result -> !result.isEmpty()
+        );
+        if (kunden.isEmpty()) {
+            throw new NotFoundException(suchkriterien);
+        }
+        log.debug("find: {}", kunden);
+        return kunden;
+    }
 
+    // auch ein einzelnes Suchkriterium wie nachname oder email ueber PredicateBuilder, d.h. mit "app.search.strategy"
+    private Collection<Kunde> findKunden(final Map<String, List<String>> suchkriterien) {
         if (suchkriterien.isEmpty()) {
             return repo.findAll();
         }
 
-        if (suchkriterien.size() == 1) {
-            final var nachnamen = suchkriterien.get("nachname");
-            if (nachnamen != null && nachnamen.size() == 1) {
-                final var kunden = repo.findByNachname(nachnamen.get(0));
-                if (kunden.isEmpty()) {
-                    throw new NotFoundException(suchkriterien);
-                }
-                log.debug("find (nachname): {}", kunden);
-                return kunden;
-            }
+        return predicateBuilder
+            .build(suchkriterien)
+            .map(repo::findAll)
+            .orElse(List.of());
+    }
 
-            final var emails = suchkriterien.get("email");
-            if (emails != null && emails.size() == 1) {
-                final var kunde = repo.findByEmail(emails.get(0));
-                if (kunde.isEmpty()) {
-                    throw new NotFoundException(suchkriterien);
-                }
-                final var kunden = List.of(kunde.get());
-                log.debug("find (email): {}", kunden);
-                return kunden;
-            }
+    /**
+     * Kunden anhand von Suchkriterien seitenweise suchen, wobei nach Nachname und ID sortiert wird. Die Position im
+     * Suchergebnis ist eine Keyset-Position, d.h. Nachname und ID des zuletzt gelesenen Kunden. Dadurch wird weder
+     * OFFSET benötigt noch das gesamte Suchergebnis geladen.
+     *
+     * @param suchkriterien Die Suchkriterien
+     * @param position Die Keyset-Position des zuletzt gelesenen Kunden oder die initiale Position
+     * @param size Die gewünschte Seitengröße; bei 0 die voreingestellte Seitengröße und höchstens die maximale
+     * @return Die gefundenen Kunden der Seite einschließlich der Information, ob es weitere Kunden gibt
+     * @throws NotFoundException Falls ab der initialen Position keine Kunden gefunden wurden
+     */
+    public @NonNull Window<Kunde> find(
+        @NonNull final Map<String, List<String>> suchkriterien,
+        @NonNull final ScrollPosition position,
+        final int size
+    ) {
+        log.debug("find: suchkriterien={}, position={}, size={}", suchkriterien, position, size);
+
+        final var predicate = toPredicate(suchkriterien);
+        final var pageSize = size <= 0 ? pagingProps.defaultSize() : Math.min(size, pagingProps.maxSize());
+        final var kunden = timer.recordLookup(
+            METRICS_NAME,
+            "findWindow",
+            criterion(suchkriterien),
+            () -> repo.findBy(predicate, query -> query
+                .sortBy(KEYSET_SORT)
+                .limit(pageSize)
+                .scroll(position)),
+            result -> !result.isEmpty()
+        );
+        if (kunden.isEmpty() && position.isInitial()) {
+            throw new NotFoundException(suchkriterien);
         }
+        log.debug("find: size={}, hasNext={}", kunden.size(), kunden.hasNext());
+        return kunden;
+    }
 
-        final var predicate = predicateBuilder
-            .build(suchkriterien)
-            .orElseThrow(() -> new NotFoundException(suchkriterien));
-        final var kunden = repo.findAll(predicate);
+    /**
+     * Kunden anhand von Suchkriterien suchen, wobei nur die angegebenen Attribute gelesen werden. Statt Entity-Objekten
+     * im Persistenzkontext werden Projektionen zurückgeliefert, z.B. für Listen mit wenigen Feldern bei GraphQL.
+     *
+     * @param suchkriterien Die Suchkriterien
+     * @param attribute Die Namen der zu lesenden Attribute, z.B. "nachname" oder "adresse.plz"
+     * @return Die gefundenen Kunden als Projektion
+     * @throws NotFoundException Falls keine Kunden gefunden wurden
+     */
+    public @NonNull List<KundeProjektion> findProjektionen(
+        @NonNull final Map<String, List<String>> suchkriterien,
+        @NonNull final Collection<String> attribute
+    ) {
+        log.debug("findProjektionen: suchkriterien={}, attribute={}", suchkriterien, attribute);
+        final var predicate = toPredicate(suchkriterien);
+        final var kunden = timer.recordLookup(
+            METRICS_NAME,
+            "findProjektionen",
+            criterion(suchkriterien),
+            () -> repo.findProjektionen(predicate, attribute),
+            result -> !result.isEmpty()
+        );
         if (kunden.isEmpty()) {
             throw new NotFoundException(suchkriterien);
         }
-        log.debug("find: {}", kunden);
+        log.debug("findProjektionen: {}", kunden);
         return kunden;
     }
 
     /**
-     * Abfrage, welche Nachnamen es zu einem Präfix gibt.
+     * Die Umsätze zu mehreren Kunden mit einer einzigen Query suchen, z.B. für einen DataLoader bei GraphQL.
+     *
+     * @param ids Die IDs der Kunden
+     * @return Die Umsätze zu den Kunde-IDs; Kunden ohne Umsätze sind nicht enthalten
+     */
+    public @NonNull Map<UUID, List<Umsatz>> findUmsaetzeByKundeIds(@NonNull final Collection<UUID> ids) {
+        log.debug("findUmsaetzeByKundeIds: ids={}", ids);
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        final var umsaetze = timer.record(
+            METRICS_NAME,
+            "findUmsaetzeByKundeIds",
+            ID_CRITERION,
+            () -> repo.findUmsaetzeByKundeIds(ids)
+        )
+            .stream()
+            .collect(groupingBy(KundeUmsatz::kundeId, HashMap::new, mapping(KundeUmsatz::toUmsatz, toList())));
+        log.debug("findUmsaetzeByKundeIds: {}", umsaetze);
+        return umsaetze;
+    }
+
+    /**
+     * Kunden anhand von Suchkriterien für einen Export einzeln verarbeiten. Die Kunden werden mit einem DB-Cursor
+     * gelesen, so dass der Speicherbedarf unabhängig von der Anzahl der gefundenen Kunden ist.
+     *
+     * @param suchkriterien Die Suchkriterien
+     * @param consumer Die Verarbeitung eines einzelnen Kunden, z.B. das Schreiben in einen Ausgabestrom
+     * @return Die Anzahl der verarbeiteten Kunden
+     * @throws NotFoundException Falls die Suchkriterien ungültig sind
+     */
+    public long export(@NonNull final Map<String, List<String>> suchkriterien, @NonNull final Consumer<Kunde> consumer) {
+        log.debug("export: suchkriterien={}", suchkriterien);
+        final var predicate = toPredicate(suchkriterien);
+        final long anzahl = timer.record(
+            METRICS_NAME,
+            "export",
+            criterion(suchkriterien),
+            () -> repo.forEach(predicate, exportProps.fetchSize(), consumer)
+        );
+        log.debug("export: anzahl={}", anzahl);
+        return anzahl;
+    }
+
+    /**
+     * Abfrage, welche Nachnamen es zu einem Präfix gibt. Die Nachnamen werden aus dem Index im Hauptspeicher ermittelt
+     * und nur während dessen Aufbau aus der DB.
      *
      * @param prefix Nachname-Präfix.
      * @return Die passenden Nachnamen.
@@ -144,11 +349,42 @@ public class KundeReadService {
      */
     public @NonNull Collection<String> findNachnamenByPrefix(final String prefix) {
         log.debug("findNachnamenByPrefix: {}", prefix);
-        final var nachnamen = repo.findNachnamenByPrefix(prefix);
+        final var nachnamen = timer.recordLookup(
+            METRICS_NAME,
+            "findNachnamenByPrefix",
+            Tags.of(CRITERION_TAG, "prefix"),
+            () -> nachnameIndex
+                .findByPrefix(prefix)
+                .orElseGet(() -> repo.findNachnamenByPrefix(prefix)),
+            result -> !result.isEmpty()
+        );
         if (nachnamen.isEmpty()) {
             throw new NotFoundException();
         }
         log.debug("findNachnamenByPrefix: {}", nachnamen);
         return nachnamen;
     }
+
+    // Tag-Wert fuer die Art der Suche: none, combined, invalid oder der Name des einzelnen Suchkriteriums
+    private static Tags criterion(final Map<String, List<String>> suchkriterien) {
+        final String criterion;
+        if (suchkriterien.isEmpty()) {
+            criterion = MethodTimer.NONE;
+        } else if (suchkriterien.size() > 1) {
+            criterion = "combined";
+        } else {
+            final var name = suchkriterien.keySet().iterator().next();
+            criterion = SUCHKRITERIEN.contains(name) ? name : "invalid";
+        }
+        return Tags.of(CRITERION_TAG, criterion);
+    }
+
+    private Predicate toPredicate(final Map<String, List<String>> suchkriterien) {
+        if (suchkriterien.isEmpty()) {
+            return new BooleanBuilder();
+        }
+        return predicateBuilder
+            .build(suchkriterien)
+            .orElseThrow(() -> new NotFoundException(suchkriterien));
+    }
 }
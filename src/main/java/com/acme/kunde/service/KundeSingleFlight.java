@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.service;
+
+import com.acme.kunde.ReadYourWrites;
+import com.acme.kunde.entity.Kunde;
+import com.acme.kunde.repository.KundeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bündelung ("Single Flight") von nebenläufigen Lesezugriffen auf denselben Kunden: solange ein Kunde zu einer ID aus
+ * der DB gelesen wird, warten weitere Aufrufe mit derselben ID auf dieses Ergebnis, statt selbst die DB abzufragen.
+ * <p>
+ * Die wartenden Aufrufe erhalten dasselbe, bereits detachte Objekt, das deshalb nicht geändert werden darf. Der
+ * DB-Zugriff erfolgt nicht mit <code>computeIfAbsent()</code> innerhalb der Map, sondern die weiteren Aufrufe warten
+ * mit <code>CompletableFuture.join()</code>.
+ * </p>
+ * <p>
+ * Ein Benutzer mit einer eigenen Änderung innerhalb von "app.replica.stickiness" (siehe {@linkplain ReadYourWrites})
+ * liest ohne Bündelung aus der primären DB, weil ein laufender Lesezugriff eines anderen Benutzers aus einer Read
+ * Replica mit veralteten Daten stammen kann.
+ * </p>
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+@Slf4j
+class KundeSingleFlight {
+    private static final String METRICS_NAME = "kunde.find.by.id";
+    private static final String COALESCED_TAG = "coalesced";
+
+    private final KundeRepository repo;
+    private final ReadYourWrites readYourWrites;
+    private final ConcurrentMap<UUID, CompletableFuture<Optional<Kunde>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter loadCounter;
+    private final Counter coalescedCounter;
+
+    KundeSingleFlight(
+        final KundeRepository repo,
+        final ReadYourWrites readYourWrites,
+        final MeterRegistry meterRegistry
+    ) {
+        this.repo = repo;
+        this.readYourWrites = readYourWrites;
+        // Metrik "kunde.find.by.id" mit coalesced=false (eigener DB-Zugriff) oder coalesced=true (gebuendelt)
+        loadCounter = Counter.builder(METRICS_NAME)
+            .description("Lesezugriffe auf einen Kunden anhand der ID")
+            .tag(COALESCED_TAG, "false")
+            .register(meterRegistry);
+        coalescedCounter = Counter.builder(METRICS_NAME)
+            .description("Lesezugriffe auf einen Kunden anhand der ID")
+            .tag(COALESCED_TAG, "true")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Einen Kunden anhand seiner ID aus der DB lesen oder auf einen bereits laufenden Lesezugriff warten.
+     *
+     * @param id Die ID des gesuchten Kunden
+     * @return Optional mit dem gefundenen Kunden oder leeres Optional
+     */
+    Optional<Kunde> findById(final UUID id) {
+        if (readYourWrites.isCurrentUserSticky()) {
+            loadCounter.increment();
+            return repo.findById(id);
+        }
+
+        final var future = new CompletableFuture<Optional<Kunde>>();
+        final var running = inFlight.putIfAbsent(id, future);
+        if (running != null) {
+            coalescedCounter.increment();
+            log.trace("findById: id={} gebuendelt", id);
+            return join(running);
+        }
+
+        loadCounter.increment();
+        try {
+            final var kunde = repo.findById(id);
+            future.complete(kunde);
+            return kunde;
+        } catch (final RuntimeException ex) {
+            future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(id, future);
+        }
+    }
+
+    private static Optional<Kunde> join(final CompletableFuture<Optional<Kunde>> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException ex) {
+            if (ex.getCause() instanceof final RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
@@ -16,24 +16,54 @@
  */
 package com.acme.kunde.service;
 
+import com.acme.kunde.BulkCreateProps;
+import com.acme.kunde.MethodTimer;
+import com.acme.kunde.ReadYourWrites;
 import com.acme.kunde.entity.Kunde;
 import com.acme.kunde.mail.Mailer;
+import com.acme.kunde.repository.DuplicateKeys;
 import com.acme.kunde.repository.KundeRepository;
 import com.acme.kunde.security.CustomUserDetailsService;
+import com.acme.kunde.security.Login;
+import com.acme.kunde.security.PasswordHashingBusyException;
 import com.acme.kunde.security.PasswordInvalidException;
 import com.acme.kunde.security.UsernameExistsException;
+import io.micrometer.core.instrument.Tags;
 import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import static java.util.Locale.GERMAN;
+import static java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor;
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
 
 /**
  * Anwendungslogik für Kunden auch mit Bean Validation.
  * <img src="../../../../../asciidoc/KundeWriteService.svg" alt="Klassendiagramm">
+ * Die Dauer der Methoden wird durch den Timer "kunde.write" mit den Tags "method" und "exception" gemessen, und zwar
+ * ohne das Commit der Transaktion, das z.B. in "http.server.requests" enthalten ist. Nur bei "create" ist das Commit
+ * enthalten, weil die Transaktion erst nach den parallelen Überprüfungen beginnt.
  *
  * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
  */
@@ -42,14 +72,27 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 @Slf4j
 public class KundeWriteService {
+    private static final int IN_CHUNK_SIZE = 1000;
+    private static final String METRICS_NAME = "kunde.write";
+
     private final KundeRepository repo;
     // https://docs.spring.io/spring-framework/docs/current/reference/html/core.html#validation-beanvalidation
     private final Validator validator;
     private final CustomUserDetailsService userService;
     private final Mailer mailer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EmailFilter emailFilter;
+    private final MethodTimer timer;
+    private final ReadYourWrites readYourWrites;
+    private final TransactionTemplate transactionTemplate;
+    private final BulkCreateProps bulkCreateProps;
 
     /**
-     * Einen neuen Kunden anlegen.
+     * Einen neuen Kunden anlegen. Die Überprüfungen der Emailadresse und des Benutzernamens sowie das Verschlüsseln
+     * des Passworts erfolgen parallel in Virtual Threads und noch ohne Transaktion. Erst wenn alle erfolgreich waren,
+     * werden Login und Kunde in einer Transaktion abgespeichert. Scheitert eine Überprüfung, wird das Verschlüsseln
+     * abgebrochen und auf das Ende der übrigen Überprüfungen gewartet. Ein bereits laufendes Argon2 rechnet jedoch im
+     * Hintergrund zu Ende und belegt solange einen Thread des begrenzten Pools für das Verschlüsseln.
      *
      * @param kunde Das Objekt des neu anzulegenden Kunden.
      * @param user Die Benutzerdaten für den neuen Kunden.
@@ -60,9 +103,14 @@ public class KundeWriteService {
      * @throws UsernameExistsException falls der Benutzername bereits existiert
      */
     // https://docs.spring.io/spring-data/jpa/docs/current/reference/html/#transactions
-    @Transactional
-    @SuppressWarnings("TrailingComment")
+    // ohne Transaktion, damit waehrend der Ueberpruefungen und des Verschluesselns keine DB-Verbindung belegt ist
+    @Transactional(propagation = NOT_SUPPORTED)
     public Kunde create(final Kunde kunde, final UserDetails user) {
+        return timer.record(METRICS_NAME, "create", Tags.empty(), () -> createKunde(kunde, user));
+    }
+
+    @SuppressWarnings("TrailingComment")
+    private Kunde createKunde(final Kunde kunde, final UserDetails user) {
         log.debug("create: {}", kunde); //NOSONAR
         log.debug("create: {}", kunde.getAdresse());
         log.debug("create: umsaetze={}", kunde.getUmsaetze());
@@ -74,20 +122,151 @@ public class KundeWriteService {
             throw new ConstraintViolationsException(violations);
         }
 
-        if (repo.existsByEmail(kunde.getEmail())) {
-            throw new EmailExistsException(kunde.getEmail());
-        }
-
-        final var login = userService.save(user);
+        final var login = checkAndEncode(kunde.getEmail(), user);
         log.trace("create: {}", login);
-        final var kundeDB = repo.save(kunde);
 
-        mailer.send(kundeDB);
+        final var kundeDB = transactionTemplate.execute(status -> {
+            emailFilter.put(kunde.getEmail());
+            userService.save(login);
+            final var kundeSaved = repo.save(kunde);
+            eventPublisher.publishEvent(new NachnameChangedEvent(null, kundeSaved.getNachname()));
+
+            mailer.send(kundeSaved);
+            // der neue Kunde und ggf. der angemeldete Benutzer lesen zunaechst aus der primaeren DB
+            readYourWrites.markWrite(user.getUsername());
+            readYourWrites.markWrite();
+            return kundeSaved;
+        });
 
         log.debug("create: {}", kundeDB);
         return kundeDB;
     }
 
+    // Emailadresse, Benutzername und Passwort parallel in Virtual Threads: nach der ersten Exception wird nur das
+    // Verschluesseln abgebrochen. Auf die Ueberpruefungen in der DB wird ohne Interrupt gewartet, weil ein Interrupt
+    // waehrend JDBC die Socket-Verbindung schliesst und damit die Verbindung im Pool unbrauchbar macht. Keine Aufgabe
+    // ueberdauert den Aufruf, ausgenommen ein bereits begonnenes Argon2 im BoundedPasswordEncoder.
+    private Login checkAndEncode(final String email, final UserDetails user) {
+        final Callable<Object> checkEmail = () -> {
+            if (emailFilter.exists(email)) {
+                throw new EmailExistsException(email);
+            }
+            return email;
+        };
+        final Callable<Object> checkUsername = () -> {
+            userService.checkUsername(user.getUsername());
+            return user.getUsername();
+        };
+        final Callable<Object> encode = () -> userService.toLogin(user);
+
+        final var executor = newVirtualThreadPerTaskExecutor();
+        final var completionService = new ExecutorCompletionService<>(executor);
+        final var futures = Stream.of(checkEmail, checkUsername, encode)
+            .map(completionService::submit)
+            .toList();
+        final var encodeFuture = futures.get(2);
+        RuntimeException failure = null;
+        try {
+            for (var i = 0; i < futures.size(); i++) {
+                completionService.take().get();
+            }
+            return (Login) encodeFuture.resultNow();
+        } catch (final ExecutionException ex) {
+            failure = toRuntimeException(ex.getCause());
+            throw failure;
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } finally {
+            // der Virtual Thread fuer das Verschluesseln endet nach dem Interrupt sofort
+            encodeFuture.cancel(true);
+            // close() wartet auf das Ende aller Aufgaben
+            executor.close();
+            if (failure != null) {
+                addSuppressed(failure, futures);
+            }
+        }
+    }
+
+    // weitere gescheiterte Ueberpruefungen gehen nicht verloren
+    private static void addSuppressed(final RuntimeException failure, final Collection<Future<Object>> futures) {
+        futures.stream()
+            .filter(future -> future.state() == Future.State.FAILED)
+            .map(Future::exceptionNow)
+            .filter(ex -> ex != failure && ex != failure.getCause())
+            .forEach(failure::addSuppressed);
+    }
+
+    private static RuntimeException toRuntimeException(final Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    /**
+     * Viele neue Kunden anlegen, z.B. beim Onboarding. Emailadressen und Benutzernamen werden mengenbasiert überprüft
+     * und die Passwörter noch ohne Transaktion verschlüsselt. Danach werden jeweils "app.bulk-create.batch-size" Kunden
+     * in einer eigenen Transaktion abgespeichert: die INSERT-Anweisungen werden durch JDBC-Batching gebündelt und der
+     * Persistence Context ist nach jedem Commit wieder leer. Ein fehlerhafter Kunde wird nicht angelegt, verhindert
+     * aber nicht das Anlegen der übrigen Kunden. Scheitert das Abspeichern eines Blocks, z.B. wegen eines nebenläufig
+     * angelegten Kunden mit derselben Emailadresse, werden dessen Kunden einzeln abgespeichert.
+     *
+     * @param neueKunden Die neu anzulegenden Kunden mit ihren Benutzerdaten
+     * @return Das Ergebnis für jeden einzelnen Kunden in derselben Reihenfolge
+     * @throws TooManyKundenException Falls mehr als "app.bulk-create.max-size" Kunden angelegt werden sollen
+     */
+    // ohne Transaktion, damit waehrend des Verschluesselns keine DB-Verbindung belegt ist
+    @Transactional(propagation = NOT_SUPPORTED)
+    public List<BulkCreateResult> createAll(final List<NeuerKunde> neueKunden) {
+        return timer.record(METRICS_NAME, "createAll", Tags.empty(), () -> createKunden(neueKunden));
+    }
+
+    private List<BulkCreateResult> createKunden(final List<NeuerKunde> neueKunden) {
+        log.debug("createAll: {} Kunden", neueKunden.size());
+        if (neueKunden.size() > bulkCreateProps.maxSize()) {
+            throw new TooManyKundenException(neueKunden.size(), bulkCreateProps.maxSize());
+        }
+
+        final var gueltig = neueKunden.stream()
+            .filter(neuerKunde -> neuerKunde.kunde() != null && neuerKunde.user() != null)
+            .toList();
+        final Set<String> emails = new HashSet<>(findInChunks(
+            gueltig.stream().map(neuerKunde -> neuerKunde.kunde().getEmail()).filter(Objects::nonNull).toList(),
+            repo::findEmails
+        ));
+        final Set<String> usernames = new HashSet<>(findInChunks(
+            gueltig.stream().map(neuerKunde -> neuerKunde.user().getUsername()).filter(Objects::nonNull).toList(),
+            userService::findUsernames
+        ));
+        log.trace("createAll: vorhandene emails={}, usernames={}", emails, usernames);
+
+        // Platzhalter null fuer die vorbereiteten Kunden, bis sie abgespeichert sind
+        final List<BulkCreateResult> results = new ArrayList<>(neueKunden.size());
+        final List<NeuerLogin> neueLogins = new ArrayList<>(neueKunden.size());
+        for (int i = 0; i < neueKunden.size(); i++) {
+            final var neuerLogin = vorbereiten(i, neueKunden.get(i), emails, usernames);
+            if (neuerLogin.fehler() == null) {
+                neueLogins.add(neuerLogin);
+                results.add(null);
+            } else {
+                results.add(BulkCreateResult.failed(i, neuerLogin.fehler()));
+            }
+        }
+
+        final var batchSize = bulkCreateProps.batchSize();
+        for (int i = 0; i < neueLogins.size(); i += batchSize) {
+            speichern(neueLogins.subList(i, Math.min(i + batchSize, neueLogins.size())))
+                .forEach(result -> results.set(result.index(), result));
+        }
+        log.debug("createAll: {} Kunden angelegt", results.stream().filter(result -> result.id() != null).count());
+        readYourWrites.markWrite();
+        return results;
+    }
+
     /**
      * Einen vorhandenen Kunden aktualisieren.
      *
@@ -102,6 +281,10 @@ public class KundeWriteService {
      */
     @Transactional
     public Kunde update(final Kunde kunde, final UUID id, final int version) {
+        return timer.record(METRICS_NAME, "update", Tags.empty(), () -> updateKunde(kunde, id, version));
+    }
+
+    private Kunde updateKunde(final Kunde kunde, final UUID id, final int version) {
         log.debug("update: {}", kunde);
         log.debug("update: id={}, version={}", id, version);
 
@@ -125,18 +308,116 @@ public class KundeWriteService {
 
         final var email = kunde.getEmail();
         // Ist die neue E-Mail bei einem *ANDEREN* Kunden vorhanden?
-        if (!Objects.equals(email, kundeDb.getEmail()) && repo.existsByEmail(email)) {
+        final var emailAlt = kundeDb.getEmail();
+        final var emailChanged = !Objects.equals(email, emailAlt);
+        if (emailChanged && emailFilter.exists(email)) {
             log.debug("update: email {} existiert", email);
             throw new EmailExistsException(email);
         }
         log.trace("update: Kein Konflikt mit der Emailadresse");
+        if (emailChanged) {
+            emailFilter.put(email);
+            eventPublisher.publishEvent(new EmailRemovedEvent(emailAlt));
+        }
 
+        final var nachnameAlt = kundeDb.getNachname();
         kundeDb.set(kunde);
         kundeDb = repo.save(kundeDb);
+        if (!Objects.equals(nachnameAlt, kundeDb.getNachname())) {
+            eventPublisher.publishEvent(new NachnameChangedEvent(nachnameAlt, kundeDb.getNachname()));
+        }
+        readYourWrites.markWrite();
         log.debug("update: {}", kundeDb);
         return kundeDb;
     }
 
+    // emails und usernames enthalten die vorhandenen und die bereits vorbereiteten Werte
+    private NeuerLogin vorbereiten(
+        final int index,
+        final NeuerKunde neuerKunde,
+        final Set<String> emails,
+        final Set<String> usernames
+    ) {
+        final var kunde = neuerKunde.kunde();
+        final var user = neuerKunde.user();
+        if (kunde == null || user == null) {
+            return NeuerLogin.failed(index, "Der Kunde oder die Benutzerdaten fehlen");
+        }
+
+        final var violations = validator.validate(kunde);
+        if (!violations.isEmpty()) {
+            final var fehler = violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.joining(", "));
+            return NeuerLogin.failed(index, fehler);
+        }
+
+        final var email = kunde.getEmail();
+        if (emails.contains(email)) {
+            return NeuerLogin.failed(index, new EmailExistsException(email).getMessage());
+        }
+        final var username = user.getUsername();
+        if (username == null || usernames.contains(username.toLowerCase(GERMAN))) {
+            return NeuerLogin.failed(index, "Der Benutzername " + username + " existiert bereits.");
+        }
+
+        final Login login;
+        try {
+            login = userService.toLogin(user);
+        } catch (final PasswordInvalidException ex) {
+            return NeuerLogin.failed(index, "Ungueltiges Passwort");
+        } catch (final PasswordHashingBusyException ex) {
+            return NeuerLogin.failed(index, "Das Passwort kann derzeit nicht verschluesselt werden");
+        }
+        emails.add(email);
+        usernames.add(username.toLowerCase(GERMAN));
+        return new NeuerLogin(index, kunde, login, null);
+    }
+
+    // ein Block in einer eigenen Transaktion: das Commit fuehrt den Flush mit JDBC-Batching durch
+    private List<BulkCreateResult> speichern(final List<NeuerLogin> neueLogins) {
+        try {
+            return transactionTemplate.execute(status -> neueLogins.stream().map(this::speichern).toList());
+        } catch (final DataAccessException | TransactionException ex) {
+            log.debug("createAll: Block mit {} Kunden gescheitert: {}", neueLogins.size(), ex.getMessage());
+            if (neueLogins.size() == 1) {
+                final var neuerLogin = neueLogins.get(0);
+                final var fehler = ex instanceof final DataIntegrityViolationException integrityEx &&
+                    DuplicateKeys.isEmailOrUsername(integrityEx)
+                    ? "Die Emailadresse oder der Benutzername existiert bereits"
+                    : "Der Kunde konnte nicht gespeichert werden";
+                return List.of(BulkCreateResult.failed(neuerLogin.index(), fehler));
+            }
+            // nach dem Rollback einzeln abspeichern, damit nur die fehlerhaften Kunden nicht angelegt werden
+            return neueLogins.stream()
+                .peek(NeuerLogin::resetIds)
+                .flatMap(neuerLogin -> speichern(List.of(neuerLogin)).stream())
+                .toList();
+        }
+    }
+
+    private BulkCreateResult speichern(final NeuerLogin neuerLogin) {
+        userService.save(neuerLogin.login());
+        // INSERT erst beim Flush am Ende der Transaktion, gebuendelt durch hibernate.jdbc.batch_size
+        final var kundeDB = repo.save(neuerLogin.kunde());
+        emailFilter.put(kundeDB.getEmail());
+        eventPublisher.publishEvent(new NachnameChangedEvent(null, kundeDB.getNachname()));
+        mailer.send(kundeDB);
+        return BulkCreateResult.created(neuerLogin.index(), kundeDB.getId());
+    }
+
+    // IN-Listen sind z.B. bei Oracle auf 1000 Werte begrenzt
+    private static Collection<String> findInChunks(
+        final List<String> values,
+        final Function<Collection<String>, Collection<String>> finder
+    ) {
+        final Collection<String> result = new ArrayList<>();
+        for (int i = 0; i < values.size(); i += IN_CHUNK_SIZE) {
+            result.addAll(finder.apply(values.subList(i, Math.min(i + IN_CHUNK_SIZE, values.size()))));
+        }
+        return result;
+    }
+
     /**
      * Einen Kunden löschen.
      *
@@ -144,12 +425,41 @@ public class KundeWriteService {
      */
     @Transactional
     public void deleteById(final UUID id) {
+        timer.record(METRICS_NAME, "deleteById", Tags.empty(), () -> deleteKunde(id));
+    }
+
+    private void deleteKunde(final UUID id) {
         log.debug("deleteById: id={}", id);
         final var kundeOptional = repo.findById(id);
         if (kundeOptional.isEmpty()) {
             log.debug("deleteById: id={} nicht vorhanden", id);
             return;
         }
-        repo.delete(kundeOptional.get());
+        final var kunde = kundeOptional.get();
+        repo.delete(kunde);
+        eventPublisher.publishEvent(new NachnameChangedEvent(kunde.getNachname(), null));
+        eventPublisher.publishEvent(new EmailRemovedEvent(kunde.getEmail()));
+        readYourWrites.markWrite();
+    }
+
+    // Kunde mit verschluesseltem Passwort, bereit zum Abspeichern, oder mit der Fehlermeldung
+    private record NeuerLogin(int index, Kunde kunde, Login login, String fehler) {
+        static NeuerLogin failed(final int index, final String fehler) {
+            return new NeuerLogin(index, null, null, fehler);
+        }
+
+        // die beim gescheiterten Abspeichern generierten IDs wurden durch das Rollback nicht verwendet
+        void resetIds() {
+            kunde.setId(null);
+            final var adresse = kunde.getAdresse();
+            if (adresse != null) {
+                adresse.setId(null);
+            }
+            final var umsaetze = kunde.getUmsaetze();
+            if (umsaetze != null) {
+                umsaetze.forEach(umsatz -> umsatz.setId(null));
+            }
+            login.setId(null);
+        }
     }
 }
@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.service;
+
+import com.acme.kunde.NachnameIndexProps;
+import com.acme.kunde.repository.KundeRepository;
+import com.acme.kunde.repository.NachnameAnzahl;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import static java.util.Locale.GERMAN;
+import static org.springframework.transaction.event.TransactionPhase.BEFORE_COMMIT;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.registerSynchronization;
+
+/**
+ * Index der verschiedenen Nachnamen im Hauptspeicher, um Nachnamen zu einem Präfix ohne DB-Zugriff zu ermitteln.
+ * Die Nachnamen sind nach ihrer Kleinschreibung sortiert, so dass die Nachnamen zu einem Präfix ein zusammenhängender
+ * Bereich sind. Pro Nachname gibt es nur einen Eintrag mit der Anzahl der Kunden, d.h. keine Knoten pro Buchstabe wie
+ * bei einem Trie.
+ * <p>
+ * Bei Änderungen während des Aufbaus ist unklar, ob sie bereits in der Abfrage enthalten sind. Deshalb werden die
+ * betroffenen Nachnamen gepuffert und vor der Veröffentlichung des neuen Index erneut gezählt, statt die Änderungen
+ * nachzutragen und sie ggf. doppelt zu zählen. Veröffentlicht wird erst, wenn keine Transaktion mit einer Änderung
+ * mehr zwischen BEFORE_COMMIT und ihrem Ende ist.
+ * </p>
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class NachnameIndex {
+    private final KundeRepository repo;
+    private final NachnameIndexProps props;
+
+    // schuetzt pending, laufend und das Aktualisieren von nachnamen
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // signalisiert das Ende einer Transaktion waehrend des Aufbaus
+    private final Condition beendet = lock.newCondition();
+
+    // Events von Transaktionen zwischen BEFORE_COMMIT und ihrem Ende, d.h. ggf. schon festgeschrieben
+    private final Set<NachnameChangedEvent> laufend = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    // Schluessel: Nachname in Kleinschreibung
+    private volatile ConcurrentSkipListMap<String, Eintrag> nachnamen;
+
+    // Nachnamen in Kleinschreibung mit Aenderungen waehrend des Aufbaus oder null, falls der Index nicht gerade
+    // aufgebaut wird
+    private Set<String> pending;
+
+    /**
+     * Den Index beim Start der Anwendung aus der DB aufbauen.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void rebuild() {
+        // betroffene Nachnamen ab jetzt puffern: was vorher festgeschrieben wurde, ist in der Abfrage enthalten
+        lock.lock();
+        try {
+            pending = new HashSet<>();
+        } finally {
+            lock.unlock();
+        }
+
+        final var neu = new ConcurrentSkipListMap<String, Eintrag>();
+        var anzahlPending = 0;
+        try {
+            merge(neu, repo.countNachnamen());
+            Set<String> keys;
+            while ((keys = nextPending(neu)) != null) {
+                anzahlPending += keys.size();
+                // absolute Anzahl statt Differenz: mehrfaches Zaehlen derselben Aenderung ist unschaedlich
+                keys.forEach(neu::remove);
+                merge(neu, repo.countNachnamen(keys));
+            }
+        } catch (final RuntimeException e) {
+            lock.lock();
+            try {
+                pending = null;
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+        log.info("rebuild: {} Nachnamen, {} erneut gezaehlt", neu.size(), anzahlPending);
+    }
+
+    // Die erneut zu zaehlenden Nachnamen oder null, nachdem der neue Index veroeffentlicht wurde
+    private Set<String> nextPending(final ConcurrentSkipListMap<String, Eintrag> neu) {
+        lock.lock();
+        try {
+            // eine laufende Transaktion kann vor der letzten Abfrage festgeschrieben worden sein: auf ihr Ende warten
+            while (pending.isEmpty() && !laufend.isEmpty()) {
+                beendet.awaitUninterruptibly();
+            }
+            if (pending.isEmpty()) {
+                pending = null;
+                nachnamen = neu;
+                return null;
+            }
+            // waehrend der erneuten Zaehlung weiter puffern
+            final var keys = pending;
+            pending = new HashSet<>();
+            return keys;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void merge(
+        final ConcurrentSkipListMap<String, Eintrag> index,
+        final Collection<NachnameAnzahl> nachnamenAnzahl
+    ) {
+        nachnamenAnzahl.forEach(nachnameAnzahl -> index.merge(
+            toKey(nachnameAnzahl.nachname()),
+            new Eintrag(nachnameAnzahl.nachname(), (int) nachnameAnzahl.anzahl()),
+            Eintrag::plus
+        ));
+    }
+
+    /**
+     * Vor dem Commit einer Transaktion mit einem neuen, geänderten oder gelöschten Nachnamen das Event vormerken und
+     * den Index nach einem erfolgreichen Commit aktualisieren.
+     *
+     * @param event Der bisherige und der neue Nachname
+     */
+    @TransactionalEventListener(phase = BEFORE_COMMIT)
+    void onNachnameChanged(final NachnameChangedEvent event) {
+        log.trace("onNachnameChanged: {}", event);
+        lock.lock();
+        try {
+            laufend.add(event);
+        } finally {
+            lock.unlock();
+        }
+        registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(final int status) {
+                onCompletion(event, status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private void onCompletion(final NachnameChangedEvent event, final boolean committed) {
+        lock.lock();
+        try {
+            laufend.remove(event);
+            if (pending != null) {
+                if (committed) {
+                    addPending(event);
+                }
+                beendet.signalAll();
+                return;
+            }
+            final var index = nachnamen;
+            // null: der Aufbau hat noch nicht begonnen und seine Abfrage enthaelt dann bereits die Aenderung
+            if (committed && index != null) {
+                apply(index, event);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void addPending(final NachnameChangedEvent event) {
+        if (event.alt() != null) {
+            pending.add(toKey(event.alt()));
+        }
+        if (event.neu() != null) {
+            pending.add(toKey(event.neu()));
+        }
+    }
+
+    private static void apply(final ConcurrentSkipListMap<String, Eintrag> index, final NachnameChangedEvent event) {
+        if (event.alt() != null) {
+            index.computeIfPresent(toKey(event.alt()), (key, eintrag) -> eintrag.minus());
+        }
+        if (event.neu() != null) {
+            index.merge(toKey(event.neu()), new Eintrag(event.neu(), 1), Eintrag::plus);
+        }
+    }
+
+    /**
+     * Die Nachnamen zu einem Präfix ermitteln, wobei Groß- und Kleinschreibung ignoriert werden.
+     *
+     * @param prefix Das Präfix
+     * @return Die sortierten Nachnamen, höchstens so viele wie konfiguriert, oder ein leeres Optional, falls der Index
+     *      noch nicht aufgebaut ist
+     */
+    Optional<Collection<String>> findByPrefix(final String prefix) {
+        final var index = nachnamen;
+        if (index == null) {
+            return Optional.empty();
+        }
+        final var key = toKey(prefix);
+        final Collection<String> result = index.tailMap(key)
+            .entrySet()
+            .stream()
+            .takeWhile(entry -> entry.getKey().startsWith(key))
+            .limit(props.limit())
+            .map(entry -> entry.getValue().nachname())
+            .toList();
+        return Optional.of(result);
+    }
+
+    private static String toKey(final String nachname) {
+        return nachname.toLowerCase(GERMAN);
+    }
+
+    /**
+     * Nachname in der ursprünglichen Schreibweise mit der Anzahl der Kunden.
+     *
+     * @param nachname Der Nachname
+     * @param anzahl Die Anzahl der Kunden
+     */
+    private record Eintrag(String nachname, int anzahl) {
+        Eintrag plus(final Eintrag other) {
+            return new Eintrag(nachname, anzahl + other.anzahl);
+        }
+
+        // null: der Eintrag wird entfernt
+        Eintrag minus() {
+            return anzahl <= 1 ? null : new Eintrag(nachname, anzahl - 1);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2023 - present Juergen Zimmermann, Hochschule Karlsruhe
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.acme.kunde.service;
+
+import com.acme.kunde.entity.Kunde;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Neu anzulegender Kunde mit seinen Benutzerdaten, z.B. beim Neuanlegen vieler Kunden.
+ *
+ * @author <a href="mailto:Juergen.Zimmermann@h-ka.de">Jürgen Zimmermann</a>
+ * @param kunde Der neu anzulegende Kunde oder null, falls er im Request fehlt
+ * @param user Die Benutzerdaten für den neuen Kunden oder null, falls sie im Request fehlen
+ */
+public record NeuerKunde(Kunde kunde, UserDetails user) {
+}
@@ -0,0 +1,20 @@
+-- Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+--
+-- This program is free software: you can redistribute it and/or modify
+-- it under the terms of the GNU General Public License as published by
+-- the Free Software Foundation, either version 3 of the License, or
+-- (at your option) any later version.
+--
+-- This program is distributed in the hope that it will be useful,
+-- but WITHOUT ANY WARRANTY; without even the implied warranty of
+-- MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+-- GNU General Public License for more details.
+--
+-- You should have received a copy of the GNU General Public License
+-- along with this program.  If not, see <https://www.gnu.org/licenses/>.
+
+-- Indexe fuer die Suche mit lower(...) LIKE in PredicateBuilder und KundeRepository
+
+-- H2 unterstuetzt   K E I N E   Indexe mit Ausdruecken wie lower(nachname)
+-- http://www.h2database.com/html/commands.html#create_index
+-- Ein Index auf die Spalte selbst wird bei lower(...) LIKE nicht benutzt, deshalb gibt es fuer H2 keine Indexe
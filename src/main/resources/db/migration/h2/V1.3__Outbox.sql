@@ -0,0 +1,28 @@
+-- Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+--
+-- This program is free software: you can redistribute it and/or modify
+-- it under the terms of the GNU General Public License as published by
+-- the Free Software Foundation, either version 3 of the License, or
+-- (at your option) any later version.
+--
+-- This program is distributed in the hope that it will be useful,
+-- but WITHOUT ANY WARRANTY; without even the implied warranty of
+-- MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+-- GNU General Public License for more details.
+--
+-- You should have received a copy of the GNU General Public License
+-- along with this program.  If not, see <https://www.gnu.org/licenses/>.
+
+-- Outbox fuer Emails, die in derselben Transaktion wie der neue Kunde geschrieben und asynchron versendet werden
+CREATE TABLE IF NOT EXISTS mail_outbox (
+    id                UUID PRIMARY KEY,
+                      -- kein Foreign Key: die Email wird auch nach dem Loeschen des Kunden versendet
+    kunde_id          UUID NOT NULL,
+    nachname          VARCHAR(40) NOT NULL,
+    versuche          INTEGER NOT NULL DEFAULT 0,
+                      -- nach "app.mail-outbox.max-attempts" Versuchen nicht mehr versenden
+    fehlgeschlagen    BOOLEAN NOT NULL DEFAULT FALSE,
+    naechster_versuch TIMESTAMP NOT NULL,
+    erzeugt           TIMESTAMP NOT NULL
+);
+CREATE INDEX IF NOT EXISTS mail_outbox_naechster_versuch_idx ON mail_outbox(naechster_versuch);
@@ -0,0 +1,23 @@
+-- Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+--
+-- This program is free software: you can redistribute it and/or modify
+-- it under the terms of the GNU General Public License as published by
+-- the Free Software Foundation, either version 3 of the License, or
+-- (at your option) any later version.
+--
+-- This program is distributed in the hope that it will be useful,
+-- but WITHOUT ANY WARRANTY; without even the implied warranty of
+-- MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+-- GNU General Public License for more details.
+--
+-- You should have received a copy of the GNU General Public License
+-- along with this program.  If not, see <https://www.gnu.org/licenses/>.
+
+-- Indexe fuer die Suche mit lower(...) LIKE in PredicateBuilder und KundeRepository
+
+-- "Functional Key Parts" ab MySQL 8.0.13 fuer lower(...) LIKE '...%'
+-- https://dev.mysql.com/doc/refman/8.0/en/create-index.html#create-index-functional-key-parts
+-- lower(...) LIKE '%...%' kann KEINEN B-Baum nutzen: es gibt keine Trigramme wie bei pg_trgm
+CREATE INDEX kunde_nachname_lower_idx ON kunde ((lower(nachname)));
+CREATE INDEX kunde_email_lower_idx ON kunde ((lower(email)));
+CREATE INDEX adresse_ort_lower_idx ON adresse ((lower(ort)));
@@ -0,0 +1,27 @@
+-- Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+--
+-- This program is free software: you can redistribute it and/or modify
+-- it under the terms of the GNU General Public License as published by
+-- the Free Software Foundation, either version 3 of the License, or
+-- (at your option) any later version.
+--
+-- This program is distributed in the hope that it will be useful,
+-- but WITHOUT ANY WARRANTY; without even the implied warranty of
+-- MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+-- GNU General Public License for more details.
+--
+-- You should have received a copy of the GNU General Public License
+-- along with this program.  If not, see <https://www.gnu.org/licenses/>.
+
+-- Interessen als Bitmaske statt als kommaseparierter String: SPORT = 1, LESEN = 2, REISEN = 4 (siehe InteresseType).
+-- Die Suche nach Interessen wird zu "interessen_bits IN (...)" mit allen Bitmasken, die die gesuchten Bits enthalten.
+-- Bewusst ohne Index: bei nur 8 moeglichen Werten trifft jeder Wert ca. 1/8 der Zeilen, so dass der Optimizer ohnehin
+-- einen Full Table Scan waehlt. Der Gewinn gegenueber LIKE '%SPORT%' ist die billigere Auswertung des Praedikats pro Zeile.
+ALTER TABLE kunde ADD interessen_bits NUMBER(10,0) DEFAULT 0 NOT NULL;
+ALTER TABLE kunde ADD CONSTRAINT kunde_interessen_bits CHECK (interessen_bits >= 0);
+UPDATE kunde SET interessen_bits =
+    CASE WHEN interessen LIKE '%SPORT%' THEN 1 ELSE 0 END +
+    CASE WHEN interessen LIKE '%LESEN%' THEN 2 ELSE 0 END +
+    CASE WHEN interessen LIKE '%REISEN%' THEN 4 ELSE 0 END
+WHERE interessen IS NOT NULL;
+ALTER TABLE kunde DROP COLUMN interessen;
@@ -0,0 +1,32 @@
+-- Copyright (C) 2022 - present Juergen Zimmermann, Hochschule Karlsruhe
+--
+-- This program is free software: you can redistribute it and/or modify
+-- it under the terms of the GNU General Public License as published by
+-- the Free Software Foundation, either version 3 of the License, or
+-- (at your option) any later version.
+--
+-- This program is distributed in the hope that it will be useful,
+-- but WITHOUT ANY WARRANTY; without even the implied warranty of
+-- MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+-- GNU General Public License for more details.
+--
+-- You should have received a copy of the GNU General Public License
+-- along with this program.  If not, see <https://www.gnu.org/licenses/>.
+
+-- Indexe fuer die Suche mit lower(...) LIKE in PredicateBuilder und KundeRepository
+
+-- https://www.postgresql.org/docs/current/pgtrgm.html
+-- pg_trgm ist eine "trusted extension", d.h. ohne Superuser installierbar; Installation im aktuellen Schema "kunde"
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- GIN-Index mit Trigrammen fuer lower(...) LIKE '%...%' und lower(...) LIKE '...%'
+-- https://www.postgresql.org/docs/current/indexes-expressional.html
+CREATE INDEX IF NOT EXISTS kunde_nachname_trgm_idx ON kunde USING gin (lower(nachname) gin_trgm_ops) TABLESPACE kundespace;
+CREATE INDEX IF NOT EXISTS kunde_email_trgm_idx ON kunde USING gin (lower(email) gin_trgm_ops) TABLESPACE kundespace;
+CREATE INDEX IF NOT EXISTS adresse_ort_trgm_idx ON adresse USING gin (lower(ort) gin_trgm_ops) TABLESPACE kundespace;
+
+-- B-Baum fuer die Praefix-Suche mit Sortierung, z.B. findNachnamenByPrefix und "app.search.strategy: PREFIX"
+-- https://www.postgresql.org/docs/current/indexes-opclass.html
+CREATE INDEX IF NOT EXISTS kunde_nachname_lower_idx ON kunde (lower(nachname) text_pattern_ops) TABLESPACE kundespace;
+CREATE INDEX IF NOT EXISTS kunde_email_lower_idx ON kunde (lower(email) text_pattern_ops) TABLESPACE kundespace;
+CREATE INDEX IF NOT EXISTS adresse_ort_lower_idx ON adresse (lower(ort) text_pattern_ops) TABLESPACE kundespace;